@@ -0,0 +1,100 @@
+#!/bin/bash
+
+# Startup Benchmark Script
+# Boots the service several times and reports time-to-first-message-consumed.
+# Each run publishes one ACCOUNT_UPDATE notification (no email is sent) through the
+# RabbitMQ management API and waits for the service to log that it consumed it.
+#
+# Usage:
+#   ./scripts/startup-benchmark.sh [runs] [mode]
+#     runs  number of boots to measure (default 5)
+#     mode  "standard" runs target/*.jar, "fast" runs target/cds with AOT + CDS
+#           (build first with: mvn -Pfast-startup package -DskipTests)
+#
+# Requires a running PostgreSQL and RabbitMQ (management plugin on RABBITMQ_MGMT_URL)
+# and the usual .env variables.
+
+set -e
+
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m'
+
+RUNS=${1:-5}
+MODE=${2:-standard}
+JAR_NAME="notification_service-0.0.1-SNAPSHOT.jar"
+PROFILES=${SPRING_PROFILE:-local}
+RABBITMQ_MGMT_URL=${RABBITMQ_MGMT_URL:-http://localhost:15672}
+EXCHANGE=${RABBITMQ_EXCHANGE:-notification-exchange}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+LOG_FILE=$(mktemp)
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+start_service() {
+    if [ "$MODE" = "fast" ]; then
+        (cd target/cds && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+            -jar "$JAR_NAME" --spring.profiles.active="$PROFILES,fast-startup") > "$LOG_FILE" 2>&1 &
+    else
+        java -jar "target/$JAR_NAME" --spring.profiles.active="$PROFILES" > "$LOG_FILE" 2>&1 &
+    fi
+    echo $!
+}
+
+publish_probe() {
+    curl -s -u "${RABBITMQ_USER:-guest}:${RABBITMQ_PASSWORD:-guest}" \
+        -H "content-type: application/json" \
+        -X POST "$RABBITMQ_MGMT_URL/api/exchanges/%2F/$EXCHANGE/publish" \
+        -d '{"properties":{"content_type":"application/json"},"routing_key":"notification.benchmark","payload":"{\"notificationType\":\"ACCOUNT_UPDATE\",\"recipientEmail\":\"benchmark@example.com\",\"recipientName\":\"Benchmark\"}","payload_encoding":"string"}' \
+        > /dev/null
+}
+
+main() {
+    cd "$(dirname "$0")/.."
+
+    local results=()
+    for run in $(seq 1 "$RUNS"); do
+        publish_probe
+        local pid
+        pid=$(start_service)
+        local elapsed=0
+        local line=""
+        while [ $elapsed -lt "$TIMEOUT_SECONDS" ]; do
+            line=$(grep -m1 "First notification consumed" "$LOG_FILE" || true)
+            [ -n "$line" ] && break
+            sleep 1
+            elapsed=$((elapsed + 1))
+        done
+        kill "$pid" 2> /dev/null || true
+        wait "$pid" 2> /dev/null || true
+
+        if [ -z "$line" ]; then
+            print_error "Run $run: no message consumed within ${TIMEOUT_SECONDS}s, see $LOG_FILE"
+            exit 1
+        fi
+        local ms
+        ms=$(echo "$line" | sed -E 's/.*consumed ([0-9]+) ms.*/\1/')
+        print_status "Run $run ($MODE): first message consumed after ${ms} ms"
+        results+=("$ms")
+    done
+
+    local sorted
+    sorted=$(printf '%s\n' "${results[@]}" | sort -n)
+    local median
+    median=$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")
+    print_success "$MODE: median ${median} ms, min $(echo "$sorted" | head -1) ms, max $(echo "$sorted" | tail -1) ms over $RUNS runs"
+    rm -f "$LOG_FILE"
+}
+
+main "$@"
@@ -0,0 +1,22 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.service.DeliveryTracer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** Exposes {@link DeliveryTracer}'s per-stage latency percentiles at {@code /actuator/deliverylatency}. */
+@Component
+@Endpoint(id = "deliverylatency")
+@RequiredArgsConstructor
+public class DeliveryLatencyEndpoint {
+
+    private final DeliveryTracer deliveryTracer;
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        return deliveryTracer.report();
+    }
+}
@@ -1,7 +1,11 @@
 package org.solace.scholar_ai.notification_service.config;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
 import java.util.Properties;
 import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.service.DeliveryStage;
+import org.solace.scholar_ai.notification_service.service.DeliveryTracer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,7 +32,7 @@ public class MailConfig {
     private String mailProtocol;
 
     @Bean
-    public JavaMailSender javaMailSender() {
+    public JavaMailSender javaMailSender(DeliveryTracer deliveryTracer) {
         log.info("Configuring JavaMailSender with host: {}, port: {}, username: {}", mailHost, mailPort, mailUsername);
 
         if (mailUsername == null || mailUsername.isEmpty() || mailPassword == null || mailPassword.isEmpty()) {
@@ -37,7 +41,18 @@ public class MailConfig {
             throw new IllegalStateException("Mail credentials are not configured");
         }
 
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        // Connection setup happens inside send(); timing it here splits SMTP connect from data transfer
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                long start = System.nanoTime();
+                try {
+                    return super.connectTransport();
+                } finally {
+                    deliveryTracer.record(DeliveryStage.SMTP_CONNECT, start);
+                }
+            }
+        };
         mailSender.setHost(mailHost);
         mailSender.setPort(mailPort);
         mailSender.setUsername(mailUsername);
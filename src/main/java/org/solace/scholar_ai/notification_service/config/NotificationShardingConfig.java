@@ -0,0 +1,60 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the shard queues used when notifications are partitioned by user: one durable queue per
+ * shard, bound to a direct exchange under the shard number. Each queue allows a single active
+ * consumer, so the broker hands a shard to one listener at a time and keeps its order across
+ * handovers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rabbitmq.notification.sharding.enabled", havingValue = "true")
+public class NotificationShardingConfig {
+
+    @Value("${rabbitmq.notification.queue.name}")
+    private String notificationQueueName;
+
+    @Value("${rabbitmq.notification.sharding.exchange:notification-shard-exchange}")
+    private String shardExchangeName;
+
+    @Value("${rabbitmq.notification.sharding.shards:16}")
+    private int shards;
+
+    /** Name of a shard's queue, derived from the ingress queue name. */
+    public static String shardQueueName(String notificationQueueName, int shard) {
+        return notificationQueueName + ".shard-" + shard;
+    }
+
+    @Bean
+    public DirectExchange notificationShardExchange() {
+        return new DirectExchange(shardExchangeName);
+    }
+
+    @Bean
+    public Declarables notificationShardQueues() {
+        List<Declarable> declarables = new ArrayList<>(shards * 2);
+        for (int shard = 0; shard < shards; shard++) {
+            Queue queue = QueueBuilder.durable(shardQueueName(notificationQueueName, shard))
+                    .singleActiveConsumer()
+                    .build();
+            Binding binding =
+                    BindingBuilder.bind(queue).to(notificationShardExchange()).with(String.valueOf(shard));
+            declarables.add(queue);
+            declarables.add(binding);
+        }
+        return new Declarables(declarables);
+    }
+}
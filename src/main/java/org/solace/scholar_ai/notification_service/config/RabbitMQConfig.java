@@ -1,17 +1,23 @@
 package org.solace.scholar_ai.notification_service.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitMQConfig {
 
+	private static final String MESSAGE_PACKAGE = "org.solace.scholar_ai.notification_service.dto";
+
 	@Value("${rabbitmq.notification.queue.name}")
 	private String notificationQueueName;
 
@@ -21,6 +27,21 @@ public class RabbitMQConfig {
 	@Value("${rabbitmq.notification.routing.key}")
 	private String notificationRoutingKey;
 
+	@Value("${rabbitmq.notification.listener.min-consumers:1}")
+	private int minConsumers;
+
+	@Value("${rabbitmq.notification.listener.prefetch:10}")
+	private int prefetch;
+
+	@Value("${notification.shutdown.drain-timeout-ms:20000}")
+	private long drainTimeoutMs;
+
+	@Value("${rabbitmq.notification.codec.outbound:json}")
+	private String outboundCodec;
+
+	@Value("${rabbitmq.notification.codec.compress-threshold-bytes:4096}")
+	private int compressThresholdBytes;
+
 	@Bean
 	public Queue notificationQueue() {
 		return new Queue(notificationQueueName, true);
@@ -43,10 +64,52 @@ public class RabbitMQConfig {
 		return new Jackson2JsonMessageConverter();
 	}
 
+	/**
+	 * Decodes by each message's content type: Smile when the producer says so, JSON otherwise, so
+	 * existing JSON producers keep working unchanged.
+	 */
+	private MessageConverter inboundMessageConverter() {
+		ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(jsonMessageConverter());
+		converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, new SmileMessageConverter(MESSAGE_PACKAGE));
+		return converter;
+	}
+
+	private MessageConverter outboundMessageConverter() {
+		return switch (outboundCodec.toLowerCase()) {
+			case "json" -> jsonMessageConverter();
+			case "smile" -> new SmileMessageConverter(MESSAGE_PACKAGE);
+			default -> throw new IllegalStateException("Unknown outbound codec: " + outboundCodec);
+		};
+	}
+
 	@Bean
 	public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
 		RabbitTemplate template = new RabbitTemplate(connectionFactory);
-		template.setMessageConverter(jsonMessageConverter());
+		template.setMessageConverter(outboundMessageConverter());
+		template.setBeforePublishPostProcessors(new ThresholdCompressingPostProcessor(compressThresholdBytes));
+		// Unroutable publishes come back instead of vanishing; shard forwards fail on them
+		template.setMandatory(true);
 		return template;
     }
+
+	/**
+	 * Listener container factory for the notification listener. Starts at the lower
+	 * concurrency bound; the container's own consumer scaling is left off so that
+	 * {@code ListenerAutoscaler} is the only thing moving consumers and prefetch.
+	 */
+	@Bean
+	public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+			SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+		SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+		configurer.configure(factory, connectionFactory);
+		factory.setMessageConverter(inboundMessageConverter());
+		// Undoes gzip/deflate from any producer, keyed on the content encoding header
+		factory.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
+		factory.setConcurrentConsumers(minConsumers);
+		// spring.rabbitmq.listener.simple.max-concurrency would turn on the container's own scaling
+		factory.setMaxConcurrentConsumers(null);
+		factory.setPrefetchCount(prefetch);
+		factory.setContainerCustomizer(container -> container.setShutdownTimeout(drainTimeoutMs));
+		return factory;
+	}
 }
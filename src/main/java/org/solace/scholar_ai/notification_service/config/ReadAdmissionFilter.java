@@ -0,0 +1,282 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.service.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Admission control for the per-user read endpoints, so that a frontend polling in a tight loop
+ * cannot take the small connection pool away from the notification consumer.
+ *
+ * <p>Each GET on a matching path takes a token from its client's bucket and from its user's bucket;
+ * the client is the {@code client-header} value when sent and the remote address otherwise. An
+ * admitted request then needs one of a fixed number of read permits, which keeps the remaining
+ * pool connections for the consumer (requests hold their connection for the whole request while
+ * open-in-view is on, and streamed responses keep theirs until the async request ends). A
+ * request waits briefly for a permit behind a bounded queue. Anything turned away gets a 429 with
+ * {@code Retry-After} without touching the database.
+ *
+ * <p>Long-running reads such as the export hold their permit for minutes, so they draw from a
+ * small pool of their own instead and are turned away at once when it is empty; an export in
+ * flight never holds up the list reads.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "notification.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class ReadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID = "userId";
+
+    private final List<PathPattern> patterns;
+    private final List<PathPattern> longRunningPatterns;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Semaphore permits;
+    private final Semaphore longRunningPermits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Map<String, Counter> rejected;
+    private final Timer queued;
+
+    private final double userRate;
+    private final double userBurst;
+    private final double clientRate;
+    private final double clientBurst;
+    private final String clientHeader;
+    private final int maxQueued;
+    private final long queueTimeoutMs;
+
+    public ReadAdmissionFilter(
+            @Value("${notification.admission.paths:/api/v1/app-notifications/user/{userId}/**,"
+                            + "/api/v1/notifications/user/{userId}/**,/api/v1/notification-stats/user/{userId}/**,"
+                            + "/api/v1/notification-preferences/user/{userId}/**}")
+                    List<String> paths,
+            @Value("${notification.admission.long-running.paths:/api/v1/notifications/user/{userId}/export}")
+                    List<String> longRunningPaths,
+            @Value("${notification.admission.user.rate-per-second:5}") double userRate,
+            @Value("${notification.admission.user.burst:20}") double userBurst,
+            @Value("${notification.admission.client.rate-per-second:20}") double clientRate,
+            @Value("${notification.admission.client.burst:50}") double clientBurst,
+            @Value("${notification.admission.client-header:X-Client-Id}") String clientHeader,
+            @Value("${notification.admission.idle-bucket-expiry-ms:600000}") long idleBucketExpiryMs,
+            @Value("${notification.admission.max-concurrent:2}") int maxConcurrent,
+            @Value("${notification.admission.max-queued:20}") int maxQueued,
+            @Value("${notification.admission.queue-timeout-ms:100}") long queueTimeoutMs,
+            @Value("${notification.admission.long-running.max-concurrent:1}") int maxLongRunning,
+            MeterRegistry meterRegistry) {
+        PathPatternParser parser = new PathPatternParser();
+        this.patterns = paths.stream().map(String::trim).map(parser::parse).toList();
+        this.longRunningPatterns =
+                longRunningPaths.stream().map(String::trim).map(parser::parse).toList();
+        this.userBuckets = buckets(idleBucketExpiryMs);
+        this.clientBuckets = buckets(idleBucketExpiryMs);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.longRunningPermits = new Semaphore(maxLongRunning);
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.clientHeader = clientHeader;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.rejected = Map.of(
+                "client", rejectedCounter(meterRegistry, "client"),
+                "user", rejectedCounter(meterRegistry, "user"),
+                "concurrency", rejectedCounter(meterRegistry, "concurrency"),
+                "long-running", rejectedCounter(meterRegistry, "long-running"));
+        this.queued = Timer.builder("notification.admission.queued")
+                .description("Time admitted reads waited for a permit")
+                .register(meterRegistry);
+        Gauge.builder("notification.admission.waiting", waiting, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("notification.admission.in.flight", permits, p -> maxConcurrent - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder(
+                        "notification.admission.long.running.in.flight",
+                        longRunningPermits,
+                        p -> maxLongRunning - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("notification.admission.rejected")
+                .description("Reads turned away with 429")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static Cache<String, TokenBucket> buckets(long idleExpiryMs) {
+        return Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(idleExpiryMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = match(request, longRunningPatterns);
+        boolean longRunning = userId != null;
+        if (!longRunning) {
+            userId = match(request, patterns);
+        }
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        TokenBucket client = clientBuckets.get(clientKey(request), key -> new TokenBucket(clientRate, clientBurst));
+        if (!client.tryAcquire()) {
+            reject(response, "client", client.nanosToNextToken());
+            return;
+        }
+        TokenBucket user = userBuckets.get(userId, key -> new TokenBucket(userRate, userBurst));
+        if (!user.tryAcquire()) {
+            reject(response, "user", user.nanosToNextToken());
+            return;
+        }
+        Semaphore pool = longRunning ? longRunningPermits : permits;
+        if (longRunning ? !pool.tryAcquire() : !acquirePermit()) {
+            reject(response, longRunning ? "long-running" : "concurrency", 0);
+            return;
+        }
+        boolean releaseLater = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed responses keep reading on another thread; hold the permit until they finish
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(pool));
+                releaseLater = true;
+            }
+        } finally {
+            if (!releaseLater) {
+                pool.release();
+            }
+        }
+    }
+
+    /** Returns an async request's permit once, however the request ends. */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final Semaphore pool;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(Semaphore pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Restarted on a later dispatch: re-register so the permit still follows the request
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                pool.release();
+            }
+        }
+    }
+
+    /** The user id if the path matches one of {@code patterns}, otherwise null. */
+    private static String match(HttpServletRequest request, List<PathPattern> patterns) {
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (PathPattern pattern : patterns) {
+            PathPattern.PathMatchInfo info = pattern.matchAndExtract(path);
+            if (info != null) {
+                Map<String, String> variables = info.getUriVariables();
+                return variables.getOrDefault(USER_ID, "");
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+
+    /** Takes a permit, waiting up to the queue timeout unless the queue is already full. */
+    private boolean acquirePermit() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            if (acquired) {
+                queued.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String reason, long retryAfterNanos) throws IOException {
+        rejected.get(reason).increment();
+        long retryAfter =
+                Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.debug("Rejected read ({}), retry after {} s", reason, retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"reason\":\"" + reason + "\"}");
+    }
+}
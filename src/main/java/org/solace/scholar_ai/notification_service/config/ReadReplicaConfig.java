@@ -0,0 +1,109 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to read replicas and everything else to the
+ * primary. Replaces Boot's single pool with a {@link LazyConnectionDataSourceProxy} over the primary
+ * whose read-only target is a {@link ReplicaRoutingDataSource}. Each pool is a named Hikari pool
+ * ({@code primary}, {@code replica-0}, ...) reporting the usual {@code hikaricp.*} metrics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.datasource.replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    /**
+     * Milliseconds behind the primary; 0 when all received WAL is replayed, so an idle primary does
+     * not read as lag.
+     */
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()"
+            + " THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final ObjectProvider<ReplicaRoutingDataSource> routing;
+
+    @Value("${notification.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${notification.datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${notification.datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${notification.datasource.replicas.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${notification.datasource.replicas.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${notification.datasource.replicas.lag-query:" + POSTGRES_LAG_QUERY + "}")
+    private String lagQuery;
+
+    public ReadReplicaConfig(ObjectProvider<ReplicaRoutingDataSource> routing) {
+        this.routing = routing;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        log.info("Routing read-only transactions to {} replica(s), max lag {} ms", replicas.size(), maxLagMs);
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagMs, meterRegistry);
+    }
+
+    /** The data source the rest of the application (JPA, Flyway, JDBC) sees. */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing.primary());
+        proxy.setReadOnlyDataSource(routing);
+        return proxy;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.datasource.replicas.lag-check-interval-ms:1000}")
+    public void checkReplicaLag() {
+        routing.getObject().checkLag();
+    }
+}
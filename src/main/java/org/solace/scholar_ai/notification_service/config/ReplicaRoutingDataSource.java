@@ -0,0 +1,189 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serves read-only connections: round-robin over the replicas whose last measured lag is within
+ * {@code maxLagMs}, falling back to the primary when none is, or when the current transaction was
+ * {@linkplain #pinToPrimary() pinned} for read-your-writes. Used as the read-only target of a
+ * {@code LazyConnectionDataSourceProxy}, which only asks for a connection once the transaction's
+ * read-only flag is known.
+ *
+ * <p>Lag is measured by {@link #checkLag()} with a query returning milliseconds behind the primary;
+ * a replica is skipped until its first successful check and whenever a check fails.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryPinned;
+    private final Counter primaryLagging;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, ? extends DataSource> replicas,
+            String lagQuery,
+            long maxLagMs,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, readCounter(meterRegistry, name, "replica"));
+            Gauge.builder("notification.datasource.replica.lag", replica, r -> r.lagMs)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .description("Last measured replication lag; NaN when the replica is unreachable")
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        });
+        this.primaryPinned = readCounter(meterRegistry, "primary", "pinned");
+        this.primaryLagging = readCounter(meterRegistry, "primary", "replicas_lagging");
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("notification.datasource.reads")
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Read-only connections handed out, by target and routing reason")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the rest of the current transaction's reads to the primary. Must be called before the
+     * transaction's first query; cleared when the transaction completes.
+     */
+    public static void pinToPrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || PINNED.get() != null) {
+            return;
+        }
+        PINNED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PINNED.remove();
+            }
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    private DataSource route() {
+        if (PINNED.get() != null) {
+            primaryPinned.increment();
+            return primary;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagMs <= maxLagMs) {
+                replica.reads.increment();
+                return replica.dataSource;
+            }
+        }
+        primaryLagging.increment();
+        return primary;
+    }
+
+    /** Measures every replica's lag; an unreachable replica is taken out of rotation. */
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            double lag = Double.NaN;
+            try (Connection connection = replica.dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (rs.next()) {
+                    lag = rs.getDouble(1);
+                    if (rs.wasNull()) {
+                        lag = 0;
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Replica {} lag check failed: {}", replica.name, e.getMessage());
+            }
+            boolean wasInRotation = replica.lagMs <= maxLagMs;
+            replica.lagMs = lag;
+            if (wasInRotation && !(lag <= maxLagMs)) {
+                log.warn("Replica {} out of rotation, lag {} ms (max {} ms)", replica.name, lag, maxLagMs);
+            } else if (!wasInRotation && lag <= maxLagMs) {
+                log.info("Replica {} in rotation, lag {} ms", replica.name, lag);
+            }
+        }
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    /** Last measured lag per replica in milliseconds; NaN if unknown or unreachable. */
+    public Map<String, Double> lagByReplica() {
+        Map<String, Double> lags = new LinkedHashMap<>();
+        replicas.forEach(r -> lags.put(r.name, r.lagMs));
+        return lags;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+        closeQuietly(primary);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        // NaN compares false against the limit, so unchecked and unreachable replicas are skipped
+        private volatile double lagMs = Double.NaN;
+
+        private Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Resolves email templates from {@code templates-optimized/}, the CSS-inlined and minified copies
+ * written at build time by {@code EmailTemplateOptimizer}, ahead of Boot's resolver for {@code
+ * templates/}. A template missing from the optimized set, e.g. when running from an IDE without the
+ * Maven build, falls through to the original.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.templates.optimized", havingValue = "true", matchIfMissing = true)
+public class TemplateConfig {
+
+    @Bean
+    public SpringResourceTemplateResolver optimizedTemplateResolver(ThymeleafProperties properties) {
+        SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+        resolver.setPrefix("classpath:/templates-optimized/");
+        resolver.setSuffix(properties.getSuffix());
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(properties.getEncoding().name());
+        resolver.setCacheable(properties.isCache());
+        resolver.setCheckExistence(true);
+        resolver.setOrder(0);
+        return resolver;
+    }
+}
@@ -0,0 +1,28 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+
+/**
+ * Gzips outgoing bodies larger than the threshold. Small messages are left alone, where compression
+ * costs more CPU than it saves on the wire. Receivers undo it from the content encoding header.
+ */
+public class ThresholdCompressingPostProcessor implements MessagePostProcessor {
+
+    private final GZipPostProcessor gzip = new GZipPostProcessor();
+    private final int thresholdBytes;
+
+    public ThresholdCompressingPostProcessor(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) throws AmqpException {
+        if (thresholdBytes <= 0 || message.getBody().length < thresholdBytes) {
+            return message;
+        }
+        return gzip.postProcessMessage(message);
+    }
+}
@@ -2,16 +2,28 @@ package org.solace.scholar_ai.notification_service.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.BroadcastNotification;
 import org.solace.scholar_ai.notification_service.service.AppNotificationService;
+import org.solace.scholar_ai.notification_service.service.BroadcastNotificationService;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +35,8 @@ import org.springframework.web.bind.annotation.*;
 public class AppNotificationController {
 
     private final AppNotificationService service;
+    private final BroadcastNotificationService broadcastService;
+    private final Validator validator;
 
     @Operation(summary = "List app notifications for a user")
     @GetMapping("/user/{userId}")
@@ -30,6 +44,15 @@ public class AppNotificationController {
         return service.listByUser(userId);
     }
 
+    @Operation(summary = "Page through a user's notification history, newest first, continuing into archived ones")
+    @GetMapping("/user/{userId}/history")
+    public AppNotificationService.HistoryPage history(
+            @PathVariable("userId") UUID userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") @Min(1) @Max(200) int limit) {
+        return service.listOlder(userId, cursor, limit);
+    }
+
     @Operation(summary = "Create an app notification (from any service or frontend)")
     @PostMapping
     public AppNotification create(@Valid @RequestBody CreateRequest req) {
@@ -48,22 +71,108 @@ public class AppNotificationController {
                 req.getMetadata());
     }
 
-    @Operation(summary = "Mark an app notification as read")
+    @Operation(
+            summary = "Create up to 500 app notifications in one call; invalid items are reported, the rest inserted")
+    @PostMapping("/batch")
+    public List<BatchItemResult> createBatch(@Valid @RequestBody BatchCreateRequest req) {
+        List<BatchItemResult> results = new ArrayList<>(req.getItems().size());
+        List<AppNotification> drafts = new ArrayList<>();
+        List<BatchItemResult> accepted = new ArrayList<>();
+        for (int i = 0; i < req.getItems().size(); i++) {
+            CreateRequest item = req.getItems().get(i);
+            Set<ConstraintViolation<CreateRequest>> violations = item == null ? Set.of() : validator.validate(item);
+            if (item == null || !violations.isEmpty()) {
+                String error = item == null
+                        ? "item must not be null"
+                        : violations.stream()
+                                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining(", "));
+                results.add(BatchItemResult.rejected(i, error));
+                continue;
+            }
+            drafts.add(service.draft(
+                    item.getUserId(),
+                    item.getType(),
+                    item.getCategory(),
+                    item.getTitle(),
+                    item.getMessage(),
+                    item.getPriority(),
+                    item.getActionUrl(),
+                    item.getActionText(),
+                    item.getRelatedProjectId(),
+                    item.getRelatedPaperId(),
+                    item.getRelatedTaskId(),
+                    item.getMetadata()));
+            BatchItemResult result = new BatchItemResult();
+            result.setIndex(i);
+            results.add(result);
+            accepted.add(result);
+        }
+        if (!drafts.isEmpty()) {
+            List<AppNotification> saved = service.createAll(drafts);
+            for (int i = 0; i < saved.size(); i++) {
+                accepted.get(i).setId(saved.get(i).getId());
+                accepted.get(i).setCreated(true);
+            }
+        }
+        return results;
+    }
+
+    @Operation(summary = "Full-text search a user's notifications, ranked, with highlighted snippets")
+    @GetMapping("/user/{userId}/search")
+    public AppNotificationService.SearchPage search(
+            @PathVariable("userId") UUID userId,
+            @RequestParam("q") @NotBlank @Size(max = 256) String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return service.search(userId, query, cursor, limit);
+    }
+
+    @Operation(summary = "Count unread app notifications for a user, including broadcasts")
+    @GetMapping("/user/{userId}/unread-count")
+    public long countUnread(@PathVariable("userId") UUID userId) {
+        return service.countUnread(userId);
+    }
+
+    @Operation(summary = "Mark an app notification as read (userId is required for broadcasts)")
     @PostMapping("/{id}/read")
-    public AppNotification markRead(@PathVariable("id") UUID id) {
-        return service.markRead(id);
+    public AppNotification markRead(
+            @PathVariable("id") UUID id, @RequestParam(value = "userId", required = false) UUID userId) {
+        return service.markRead(id, userId);
     }
 
-    @Operation(summary = "Mark multiple notifications as read")
+    @Operation(summary = "Mark multiple notifications as read (userId is required for broadcasts)")
     @PostMapping("/read")
-    public void markMultipleRead(@RequestBody List<UUID> ids) {
-        service.markMultipleRead(ids);
+    public void markMultipleRead(
+            @RequestBody List<UUID> ids, @RequestParam(value = "userId", required = false) UUID userId) {
+        service.markMultipleRead(ids, userId);
     }
 
-    @Operation(summary = "Delete an app notification")
+    @Operation(summary = "Delete an app notification (for a broadcast, dismiss it for userId)")
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable("id") UUID id) {
-        service.delete(id);
+    public void delete(@PathVariable("id") UUID id, @RequestParam(value = "userId", required = false) UUID userId) {
+        service.delete(id, userId);
+    }
+
+    @Operation(summary = "Broadcast a SYSTEM notification to all users, stored once")
+    @PostMapping("/broadcasts")
+    public BroadcastNotification broadcast(@Valid @RequestBody BroadcastRequest req) {
+        return broadcastService.create(
+                req.getCategory(),
+                req.getTitle(),
+                req.getMessage(),
+                req.getPriority(),
+                req.getActionUrl(),
+                req.getActionText(),
+                req.getExpiresAt(),
+                req.getMetadata());
+    }
+
+    @Operation(summary = "Withdraw a broadcast from all users")
+    @DeleteMapping("/broadcasts/{id}")
+    public void withdrawBroadcast(@PathVariable("id") UUID id) {
+        broadcastService.withdraw(id);
     }
 
     @Data
@@ -92,4 +201,45 @@ public class AppNotificationController {
 
         private Map<String, Object> metadata;
     }
+
+    @Data
+    public static class BatchCreateRequest {
+        @NotEmpty
+        @Size(max = 500)
+        private List<CreateRequest> items;
+    }
+
+    @Data
+    public static class BatchItemResult {
+        private int index;
+        private boolean created;
+        private UUID id;
+        private String error;
+
+        static BatchItemResult rejected(int index, String error) {
+            BatchItemResult result = new BatchItemResult();
+            result.setIndex(index);
+            result.setError(error);
+            return result;
+        }
+    }
+
+    @Data
+    public static class BroadcastRequest {
+        private String category;
+
+        @NotBlank
+        private String title;
+
+        private String message;
+
+        private AppNotification.NotificationPriority priority;
+
+        private String actionUrl;
+        private String actionText;
+
+        private Instant expiresAt;
+
+        private Map<String, Object> metadata;
+    }
 }
@@ -0,0 +1,37 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import jakarta.validation.ConstraintViolationException;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Services reject invalid client input with {@link IllegalArgumentException}; it is answered with a
+ * 400 and the message instead of a 500. So are request parameters failing the constraints checked
+ * by {@code @Validated} controllers, such as a blank search query.
+ */
+@RestControllerAdvice
+@Slf4j
+public class BadRequestAdvice {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        log.debug("Rejected request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage() != null ? e.getMessage() : "Invalid request"));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, String>> invalidParameter(ConstraintViolationException e) {
+        String error = e.getConstraintViolations().stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        log.debug("Rejected request: {}", error);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", error));
+    }
+}
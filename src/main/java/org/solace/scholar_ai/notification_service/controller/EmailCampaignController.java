@@ -0,0 +1,93 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.model.EmailCampaignJob;
+import org.solace.scholar_ai.notification_service.service.EmailCampaignService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/v1/email-campaigns")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Email Campaigns", description = "Bulk email to many recipients from one template")
+public class EmailCampaignController {
+
+    private final EmailCampaignService service;
+
+    @Operation(
+            summary = "Queue one template to up to 5000 recipients with small per-recipient overrides",
+            description = "Returns 202 with the job. Retrying with the same Idempotency-Key, or the same body"
+                    + " when no key is sent, returns the existing job instead of sending again.")
+    @PostMapping
+    public ResponseEntity<EmailCampaignJob> send(
+            @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 128) String idempotencyKey,
+            @Valid @RequestBody CampaignRequest req) {
+        EmailCampaignService.Submission submission = service.submit(
+                idempotencyKey,
+                req.getTemplateName(),
+                req.getSubject(),
+                req.getSharedData(),
+                req.getRecipients().stream()
+                        .map(r -> new EmailCampaignService.Recipient(
+                                r.getEmail(), r.getName(), r.getUserId(), r.getOverrides()))
+                        .toList());
+        if (!submission.sameRequest()) {
+            // The key was already used for a different campaign
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        EmailCampaignJob job = submission.job();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/email-campaigns/" + job.getId()))
+                .body(job);
+    }
+
+    @Operation(summary = "Get a campaign job's progress and the recipients that failed so far")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<EmailCampaignService.JobView> job(@PathVariable("jobId") UUID jobId) {
+        return ResponseEntity.of(service.job(jobId));
+    }
+
+    @Data
+    public static class CampaignRequest {
+        @NotBlank
+        private String templateName;
+
+        @NotBlank
+        private String subject;
+
+        private Map<String, Object> sharedData;
+
+        @NotEmpty
+        @Size(max = 5000)
+        private List<@Valid RecipientRequest> recipients;
+    }
+
+    @Data
+    public static class RecipientRequest {
+        @NotBlank
+        @Email
+        private String email;
+
+        private String name;
+
+        private UUID userId;
+
+        /** Printed as-is in place of the shared value; keep to plain text fields such as userName. */
+        private Map<String, String> overrides;
+    }
+}
@@ -0,0 +1,100 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.model.ReplayJob;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.solace.scholar_ai.notification_service.service.FailureReplayService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/v1/admin/failures")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Failure Replay", description = "Inspect failed deliveries and resend them at a controlled rate")
+public class FailureReplayController {
+
+    private final FailureReplayService service;
+
+    @Operation(summary = "Count failures by notification type and error class")
+    @GetMapping("/groups")
+    public List<NotificationRecordRepository.FailureGroup> groups(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant to) {
+        return service.groups(from, to);
+    }
+
+    @Operation(summary = "List failed deliveries, newest first")
+    @GetMapping
+    public List<NotificationRecord> list(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "errorClass", required = false) String errorClass,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant to,
+            @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
+            @RequestParam(value = "size", defaultValue = "50") @Min(1) @Max(500) int size) {
+        return service.failures(type, errorClass, from, to, page, size);
+    }
+
+    @Operation(summary = "Queue a replay of selected failures, by ids or by type / error class / time range")
+    @PostMapping("/replays")
+    public ReplayJob replay(@Valid @RequestBody ReplayRequest req) {
+        return service.submit(
+                new FailureReplayService.Selection(
+                        req.getIds(), req.getType(), req.getErrorClass(), req.getFrom(), req.getTo()),
+                req.getRatePerSecond());
+    }
+
+    @Operation(summary = "List recent replay jobs")
+    @GetMapping("/replays")
+    public List<ReplayJob> jobs(@RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(200) int limit) {
+        return service.jobs(limit);
+    }
+
+    @Operation(summary = "Get a replay job's progress and the delivery outcomes of its resends")
+    @GetMapping("/replays/{jobId}")
+    public ResponseEntity<FailureReplayService.JobView> job(@PathVariable("jobId") UUID jobId) {
+        return ResponseEntity.of(service.job(jobId));
+    }
+
+    @Operation(summary = "Cancel a queued or running replay job")
+    @PostMapping("/replays/{jobId}/cancel")
+    public ResponseEntity<Void> cancel(@PathVariable("jobId") UUID jobId) {
+        return service.cancel(jobId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Data
+    public static class ReplayRequest {
+        private List<UUID> ids;
+
+        private String type;
+
+        private String errorClass;
+
+        private Instant from;
+
+        private Instant to;
+
+        /** Defaults to notification.replay.default-rate-per-second. */
+        @Positive private Double ratePerSecond;
+    }
+}
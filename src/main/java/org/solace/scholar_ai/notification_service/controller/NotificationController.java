@@ -2,15 +2,24 @@ package org.solace.scholar_ai.notification_service.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import org.solace.scholar_ai.notification_service.model.NotificationRecord;
-import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.solace.scholar_ai.notification_service.service.NotificationExportService;
+import org.solace.scholar_ai.notification_service.service.NotificationPersistenceService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("api/v1/notifications")
@@ -18,11 +27,40 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Notifications", description = "Read notifications persisted for users")
 public class NotificationController {
 
-    private final NotificationRecordRepository repository;
+    private final NotificationPersistenceService persistenceService;
+    private final NotificationExportService exportService;
 
     @Operation(summary = "List notifications for a user")
     @GetMapping("/user/{userId}")
     public List<NotificationRecord> listByUser(@PathVariable("userId") UUID userId) {
-        return repository.findByUserIdOrderByCreatedAtDesc(userId);
+        return persistenceService.listByUser(userId);
+    }
+
+    @Operation(summary = "Stream a user's full email and app notification history as NDJSON, optionally gzipped")
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable("userId") UUID userId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant to,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    exportService.export(userId, from, to, compressed);
+                }
+            } else {
+                exportService.export(userId, from, to, out);
+            }
+        };
+        String filename = "notifications-" + userId + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(
+                        gzip
+                                ? MediaType.parseMediaType("application/gzip")
+                                : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 }
@@ -0,0 +1,86 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.NotificationPreference;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.solace.scholar_ai.notification_service.service.NotificationPreferenceService;
+import org.solace.scholar_ai.notification_service.service.QuietHoursService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/v1/notification-preferences")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Notification Preferences", description = "Per-user email and in-app opt-outs by notification type")
+public class NotificationPreferenceController {
+
+    private final NotificationPreferenceService service;
+    private final QuietHoursService quietHoursService;
+
+    @Operation(summary = "List explicit preferences for a user (anything not listed is enabled)")
+    @GetMapping("/user/{userId}")
+    public List<NotificationPreference> listByUser(@PathVariable("userId") UUID userId) {
+        return service.listByUser(userId);
+    }
+
+    @Operation(summary = "Enable or disable a channel for a notification type")
+    @PutMapping("/user/{userId}")
+    public NotificationPreference update(@PathVariable("userId") UUID userId, @Valid @RequestBody UpdateRequest req) {
+        return service.update(userId, req.getNotificationType(), req.getChannel(), req.getEnabled());
+    }
+
+    @Operation(summary = "Remove all preferences for a user, restoring the defaults")
+    @DeleteMapping("/user/{userId}")
+    public void reset(@PathVariable("userId") UUID userId) {
+        service.reset(userId);
+    }
+
+    @Operation(summary = "Get a user's quiet hours")
+    @GetMapping("/user/{userId}/quiet-hours")
+    public ResponseEntity<QuietHours> getQuietHours(@PathVariable("userId") UUID userId) {
+        return ResponseEntity.of(quietHoursService.get(userId));
+    }
+
+    @Operation(summary = "Set a daily window during which non-urgent notifications are held back")
+    @PutMapping("/user/{userId}/quiet-hours")
+    public QuietHours updateQuietHours(@PathVariable("userId") UUID userId, @Valid @RequestBody QuietHoursRequest req) {
+        return quietHoursService.update(userId, req.getStart(), req.getEnd(), req.getZoneId());
+    }
+
+    @Operation(summary = "Remove a user's quiet hours")
+    @DeleteMapping("/user/{userId}/quiet-hours")
+    public void deleteQuietHours(@PathVariable("userId") UUID userId) {
+        quietHoursService.delete(userId);
+    }
+
+    @Data
+    public static class UpdateRequest {
+        @NotNull private NotificationRequest.NotificationType notificationType;
+
+        @NotNull private NotificationPreference.Channel channel;
+
+        @NotNull private Boolean enabled;
+    }
+
+    @Data
+    public static class QuietHoursRequest {
+        @NotNull private LocalTime start;
+
+        @NotNull private LocalTime end;
+
+        @NotBlank
+        private String zoneId;
+    }
+}
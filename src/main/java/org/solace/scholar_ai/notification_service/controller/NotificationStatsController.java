@@ -0,0 +1,43 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.service.NotificationStatsService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/v1/notification-stats")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Notification Stats", description = "Per-user notification counts for dashboards")
+public class NotificationStatsController {
+
+    private final NotificationStatsService service;
+
+    @Operation(summary = "Counts by category, priority, status and day for in-app notifications and emails")
+    @GetMapping("/user/{userId}")
+    public NotificationStatsService.UserStats stats(
+            @PathVariable("userId") UUID userId,
+            @RequestParam(value = "days", defaultValue = "30") @Min(1) @Max(90) int days) {
+        return service.stats(userId, days);
+    }
+
+    @Operation(summary = "Rebuild a user's counts from their notification history")
+    @PostMapping("/user/{userId}/reconcile")
+    public NotificationStatsService.UserStats reconcile(
+            @PathVariable("userId") UUID userId,
+            @RequestParam(value = "days", defaultValue = "30") @Min(1) @Max(90) int days) {
+        service.reconcile(userId);
+        return service.stats(userId, days);
+    }
+}
@@ -56,6 +56,22 @@ public class NotificationRequest {
     // Optional: propagated from user-service for persistence and querying
     private java.util.UUID userId;
 
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(
+            description = "Optional time to deliver the notification; omitted or past means deliver now",
+            example = "2024-01-15T18:00:00Z")
+    private Instant deliverAt;
+
+    // Set internally when the service republishes the request (scheduled dispatch, replay); queue
+    // wait is measured from here instead of the original request time
+    @Schema(hidden = true)
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant enqueuedAt;
+
+    // Set internally when a failed notification is resent by a replay job
+    @Schema(hidden = true)
+    private java.util.UUID replayJobId;
+
     @Schema(description = "Available notification types")
     public enum NotificationType {
         @Schema(description = "Welcome email for new users")
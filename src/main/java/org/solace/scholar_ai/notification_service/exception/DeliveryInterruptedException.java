@@ -0,0 +1,17 @@
+package org.solace.scholar_ai.notification_service.exception;
+
+/**
+ * Thrown when a delivery is abandoned because the instance is shutting down. The message has not
+ * been sent, so it is handed back to the broker for another instance instead of being recorded as
+ * a failure.
+ */
+public class DeliveryInterruptedException extends RuntimeException {
+
+    public DeliveryInterruptedException(String message) {
+        super(message);
+    }
+
+    public DeliveryInterruptedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
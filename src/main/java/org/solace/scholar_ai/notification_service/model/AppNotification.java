@@ -1,5 +1,6 @@
 package org.solace.scholar_ai.notification_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.UUID;
@@ -75,8 +76,23 @@ public class AppNotification {
     @Column(name = "related_task_id", length = 64)
     private String relatedTaskId;
 
-    @Column(name = "metadata_json", columnDefinition = "TEXT")
-    private String metadataJson;
+    @JsonIgnore
+    @Column(name = "metadata_hash", length = 64)
+    private String metadataHash; // key into notification_payloads
+
+    @JsonIgnore
+    @Column(name = "collapse_key", length = 400)
+    private String collapseKey; // category plus related ids; null if repeats should not fold
+
+    @Column(name = "collapsed_count", nullable = false)
+    @Builder.Default
+    private int collapsedCount = 1; // events folded into this row
+
+    @Transient
+    private String metadataJson; // resolved from metadataHash when read through the API
+
+    @Transient
+    private boolean archived; // loaded from app_notifications_archive; read-only
 
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
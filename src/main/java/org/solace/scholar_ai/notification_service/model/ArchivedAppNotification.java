@@ -0,0 +1,46 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * A read {@link AppNotification} moved out of the hot table. Keeps the keyset columns for "load
+ * older" paging; everything else is in {@code content}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "app_notifications_archive")
+public class ArchivedAppNotification {
+
+    @Id
+    @Column(name = "id", columnDefinition = "uuid")
+    private UUID id; // same id as the hot row it replaced
+
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "category", length = 128)
+    private String category; // also in content; kept as a column for statistics
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 16)
+    private AppNotification.NotificationPriority priority; // also in content; kept as a column for statistics
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(name = "content", columnDefinition = "BYTEA", nullable = false)
+    private byte[] content; // gzipped JSON of the remaining fields
+
+    @Column(name = "original_size", nullable = false)
+    private int originalSize;
+}
@@ -0,0 +1,57 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * A SYSTEM notification shown to every user, stored once. Per-user read/dismissed state lives in
+ * {@link BroadcastReceipt}; users without a receipt see the broadcast as unread.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "broadcast_notifications")
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "category", length = 128)
+    private String category; // e.g., maintenance, new_feature
+
+    @Column(name = "title", length = 255, nullable = false)
+    private String title;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 16)
+    private AppNotification.NotificationPriority priority;
+
+    @Column(name = "action_url", length = 255)
+    private String actionUrl;
+
+    @Column(name = "action_text", length = 64)
+    private String actionText;
+
+    @Column(name = "metadata_json", columnDefinition = "TEXT")
+    private String metadataJson;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt; // null keeps the broadcast visible until it is withdrawn
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = Instant.now();
+    }
+}
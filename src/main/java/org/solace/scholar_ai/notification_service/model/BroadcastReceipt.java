@@ -0,0 +1,51 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+/** A user's state for one broadcast; only written once the user reads or dismisses it. */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "broadcast_receipts",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_broadcast_receipts_broadcast_user",
+                        columnNames = {"broadcast_id", "user_id"}),
+        indexes = @Index(name = "idx_broadcast_receipts_user", columnList = "user_id"))
+public class BroadcastReceipt {
+
+    public enum State {
+        READ,
+        DISMISSED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "broadcast_id", columnDefinition = "uuid", nullable = false)
+    private UUID broadcastId;
+
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", length = 16, nullable = false)
+    private State state;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,84 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "email_campaign_jobs",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_email_campaign_jobs_idempotency_key",
+                        columnNames = {"idempotency_key"}),
+        indexes = {
+            @Index(name = "idx_email_campaign_jobs_status_created", columnList = "status, created_at"),
+            @Index(name = "idx_email_campaign_jobs_request_hash", columnList = "request_hash, created_at")
+        })
+public class EmailCampaignJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    private UUID id;
+
+    @Column(name = "idempotency_key", length = 128, nullable = false)
+    private String idempotencyKey; // client's Idempotency-Key, or the job id when none was sent
+
+    @JsonIgnore
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash; // hex SHA-256 of request_json
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private Status status;
+
+    @Column(name = "template_name", length = 128, nullable = false)
+    private String templateName;
+
+    @Column(name = "subject", length = 255, nullable = false)
+    private String subject;
+
+    @JsonIgnore
+    @Column(name = "request_json", columnDefinition = "TEXT", nullable = false)
+    private String requestJson; // the whole request, with sorted map keys
+
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    @Column(name = "processed", nullable = false)
+    private int processed; // recipients handled so far; a resumed job starts here
+
+    @Column(name = "sent", nullable = false)
+    private int sent;
+
+    @Column(name = "failed", nullable = false)
+    private int failed;
+
+    @JsonIgnore
+    @Column(name = "failures_json", columnDefinition = "TEXT")
+    private String failuresJson; // the first failures only; every outcome is in the notification records
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,41 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * Serialized template data or metadata, stored once per distinct content and referenced by hash
+ * from notification rows.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_payloads")
+public class NotificationPayload {
+
+    public enum Encoding {
+        RAW,
+        GZIP
+    }
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash; // hex SHA-256 of the uncompressed UTF-8 JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "encoding", length = 8, nullable = false)
+    private Encoding encoding;
+
+    @Column(name = "content", columnDefinition = "BYTEA", nullable = false)
+    private byte[] content;
+
+    @Column(name = "original_size", nullable = false)
+    private int originalSize;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,52 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "notification_preferences",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_notification_preferences_user_type_channel",
+                        columnNames = {"user_id", "notification_type", "channel"}))
+public class NotificationPreference {
+
+    public enum Channel {
+        EMAIL,
+        IN_APP
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    @Column(name = "notification_type", length = 64, nullable = false)
+    private String notificationType; // NotificationRequest.NotificationType name
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", length = 16, nullable = false)
+    private Channel channel; // EMAIL | IN_APP
+
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+}
@@ -1,5 +1,6 @@
 package org.solace.scholar_ai.notification_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.UUID;
@@ -36,15 +37,25 @@ public class NotificationRecord {
     @Column(name = "template_name", length = 128)
     private String templateName;
 
-    @Column(name = "template_data", columnDefinition = "TEXT")
-    private String templateDataJson;
+    @JsonIgnore
+    @Column(name = "template_data_hash", length = 64)
+    private String templateDataHash; // key into notification_payloads
+
+    @Transient
+    private String templateDataJson; // resolved from templateDataHash when read through the API
 
     @Column(name = "status", length = 32)
-    private String status; // SENT, FAILED
+    private String status; // SENT, FAILED, REPLAYED (a failure that has been resent)
 
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    @Column(name = "error_class", length = 128)
+    private String errorClass; // simple name of the root cause, for grouping failures
+
+    @Column(name = "replay_job_id", columnDefinition = "uuid")
+    private UUID replayJobId; // set when this delivery was a replay of an earlier failure
+
     @Column(name = "created_at", nullable = false)
     @Builder.Default
     private Instant createdAt = Instant.now();
@@ -0,0 +1,53 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.*;
+
+/** One per-user counter; see {@code NotificationStatsService}. */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_stats")
+public class NotificationStat {
+
+    public enum Source {
+        APP,
+        EMAIL
+    }
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+        private UUID userId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "source", length = 8, nullable = false)
+        private Source source;
+
+        @Column(name = "category", length = 128, nullable = false)
+        private String category; // app category or delivery type; '' when absent
+
+        @Column(name = "priority", length = 16, nullable = false)
+        private String priority; // '' for EMAIL
+
+        @Column(name = "status", length = 16, nullable = false)
+        private String status;
+    }
+}
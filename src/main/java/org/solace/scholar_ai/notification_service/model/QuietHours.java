@@ -0,0 +1,39 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.UUID;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "quiet_hours")
+public class QuietHours {
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime; // may be before startTime for windows spanning midnight
+
+    @Column(name = "zone_id", length = 64, nullable = false)
+    private String zoneId; // e.g., Europe/Berlin
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+}
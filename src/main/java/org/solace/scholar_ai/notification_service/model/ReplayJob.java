@@ -0,0 +1,82 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "replay_jobs",
+        indexes = @Index(name = "idx_replay_jobs_status_created", columnList = "status, created_at"))
+public class ReplayJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    @Builder.Default
+    private Status status = Status.QUEUED;
+
+    @Column(name = "notification_type", length = 64)
+    private String notificationType; // selection filter; null matches any
+
+    @Column(name = "error_class", length = 128)
+    private String errorClass; // selection filter; null matches any
+
+    @Column(name = "from_time")
+    private Instant from;
+
+    @Column(name = "to_time")
+    private Instant to;
+
+    @JsonIgnore
+    @Column(name = "record_ids_json", columnDefinition = "TEXT")
+    private String recordIdsJson; // explicit selection; when set the filters above are ignored
+
+    @Column(name = "rate_per_second", nullable = false)
+    private double ratePerSecond;
+
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    @Column(name = "published", nullable = false)
+    private int published;
+
+    @Column(name = "skipped", nullable = false)
+    private int skipped; // selected records no longer FAILED when reached, e.g. replayed by another job
+
+    @Column(name = "publish_failed", nullable = false)
+    private int publishFailed;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,60 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "scheduled_notifications",
+        indexes = @Index(name = "idx_scheduled_notifications_status_deliver_at", columnList = "status, deliver_at"))
+public class ScheduledNotification {
+
+    public enum Status {
+        PENDING,
+        DISPATCHED
+    }
+
+    public enum Reason {
+        REQUESTED,
+        QUIET_HOURS
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "notification_type", length = 64, nullable = false)
+    private String notificationType;
+
+    @Column(name = "payload_json", columnDefinition = "TEXT", nullable = false)
+    private String payloadJson; // serialized NotificationRequest, republished as-is when due
+
+    @Column(name = "deliver_at", nullable = false)
+    private Instant deliverAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", length = 16, nullable = false)
+    private Reason reason;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "dispatched_at")
+    private Instant dispatchedAt;
+}
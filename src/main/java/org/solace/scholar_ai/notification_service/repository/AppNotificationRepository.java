@@ -1,9 +1,16 @@
 package org.solace.scholar_ai.notification_service.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +19,119 @@ public interface AppNotificationRepository extends JpaRepository<AppNotification
      * Returns notifications for a user ordered by newest first.
      */
     List<AppNotification> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    long countByUserIdAndStatus(UUID userId, AppNotification.NotificationStatus status);
+
+    /**
+     * Streams a user's rows created in [from, to), oldest first, through a forward-only cursor. Must
+     * be consumed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from AppNotification a where a.userId = :userId "
+            + "and a.createdAt >= :from and a.createdAt < :to order by a.createdAt")
+    Stream<AppNotification> streamByUser(
+            @Param("userId") UUID userId, @Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * A user's rows before the (created_at, id) cursor, newest first; continued from the archive when
+     * it runs out.
+     */
+    @Query(
+            value = "SELECT * FROM app_notifications WHERE user_id = :userId "
+                    + "AND (created_at, id) < (:createdAt, :id) ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<AppNotification> findOlder(
+            @Param("userId") UUID userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    /** Locks read rows created before {@code cutoff}, oldest first, skipping rows another archiver holds. */
+    @Query(
+            value = "SELECT * FROM app_notifications WHERE status = 'READ' AND created_at < :cutoff "
+                    + "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<AppNotification> lockArchivable(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /** Outcome of {@link #upsertCollapsed}; the previous values are null when a new row was inserted. */
+    interface CollapseResult {
+        UUID getId();
+
+        int getCollapsedCount();
+
+        String getPreviousPriority();
+
+        Instant getPreviousCreatedAt();
+    }
+
+    /**
+     * Inserts {@code n} unless the user has an unread row with the same collapse key, in which case
+     * that row takes the new content and timestamp and its count goes up by one. A single statement,
+     * so concurrent repeats cannot both insert. {@code n.id} must be set. The previous values come
+     * from the statement's snapshot and are null if the conflicting row was committed after it began.
+     */
+    @Query(
+            value = "WITH prior AS (SELECT id, priority, created_at FROM app_notifications "
+                    + "  WHERE user_id = :#{#n.userId} AND collapse_key = :#{#n.collapseKey} AND status = 'UNREAD'), "
+                    + "upsert AS (INSERT INTO app_notifications (id, user_id, type, category, title, message, priority, "
+                    + "    status, action_url, action_text, related_project_id, related_paper_id, related_task_id, "
+                    + "    metadata_hash, collapse_key, collapsed_count, created_at, updated_at) "
+                    + "  VALUES (:#{#n.id}, :#{#n.userId}, :#{#n.type.name()}, :#{#n.category}, :#{#n.title}, "
+                    + "    :#{#n.message}, :#{#n.priority?.name()}, 'UNREAD', :#{#n.actionUrl}, :#{#n.actionText}, "
+                    + "    :#{#n.relatedProjectId}, :#{#n.relatedPaperId}, :#{#n.relatedTaskId}, :#{#n.metadataHash}, "
+                    + "    :#{#n.collapseKey}, 1, :#{#n.createdAt}, :#{#n.createdAt}) "
+                    + "  ON CONFLICT (user_id, collapse_key) WHERE status = 'UNREAD' AND collapse_key IS NOT NULL "
+                    + "  DO UPDATE SET title = EXCLUDED.title, message = EXCLUDED.message, priority = EXCLUDED.priority, "
+                    + "    action_url = EXCLUDED.action_url, action_text = EXCLUDED.action_text, "
+                    + "    metadata_hash = EXCLUDED.metadata_hash, created_at = EXCLUDED.created_at, "
+                    + "    updated_at = EXCLUDED.updated_at, collapsed_count = app_notifications.collapsed_count + 1 "
+                    + "  RETURNING id, collapsed_count) "
+                    + "SELECT u.id AS id, u.collapsed_count AS collapsedCount, p.priority AS previousPriority, "
+                    + "  p.created_at AS previousCreatedAt "
+                    + "FROM upsert u LEFT JOIN prior p ON p.id = u.id",
+            nativeQuery = true)
+    CollapseResult upsertCollapsed(@Param("n") AppNotification n);
+
+    /** One full-text match: ranking and highlighted snippets, the row itself is loaded by id. */
+    interface SearchHit {
+        UUID getId();
+
+        Float getRank();
+
+        String getTitleHighlight();
+
+        String getMessageHighlight();
+    }
+
+    /**
+     * Ranked full-text search over a user's notifications using the generated {@code search_vector}
+     * column. Keyset-paginated on (rank, created_at, id) descending: pass the last hit of the previous
+     * page as the cursor, or {@code +Infinity} as the rank for the first page. Snippets are only
+     * computed for the rows on the page.
+     */
+    @Query(
+            value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query), "
+                    + "hits AS (SELECT a.id, a.created_at, ts_rank_cd(a.search_vector, q.query) AS rank "
+                    + "  FROM app_notifications a, q WHERE a.user_id = :userId AND a.search_vector @@ q.query), "
+                    + "page AS (SELECT * FROM hits "
+                    + "  WHERE (rank, created_at, id) < (CAST(:cursorRank AS real), :cursorCreatedAt, :cursorId) "
+                    + "  ORDER BY rank DESC, created_at DESC, id DESC LIMIT :limit) "
+                    + "SELECT p.id AS id, p.rank AS rank, "
+                    + "  ts_headline('english', coalesce(a.title, ''), q.query, :titleOptions) AS titleHighlight, "
+                    + "  ts_headline('english', coalesce(a.message, ''), q.query, :messageOptions) AS messageHighlight "
+                    + "FROM page p JOIN app_notifications a ON a.id = p.id, q "
+                    + "ORDER BY p.rank DESC, p.created_at DESC, p.id DESC",
+            nativeQuery = true)
+    List<SearchHit> search(
+            @Param("userId") UUID userId,
+            @Param("query") String query,
+            @Param("cursorRank") float cursorRank,
+            @Param("cursorCreatedAt") Instant cursorCreatedAt,
+            @Param("cursorId") UUID cursorId,
+            @Param("limit") int limit,
+            @Param("titleOptions") String titleOptions,
+            @Param("messageOptions") String messageOptions);
 }
@@ -0,0 +1,39 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.solace.scholar_ai.notification_service.model.ArchivedAppNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedAppNotificationRepository extends JpaRepository<ArchivedAppNotification, UUID> {
+
+    /** A user's archived rows before the (created_at, id) cursor, newest first. */
+    @Query(
+            value = "SELECT * FROM app_notifications_archive WHERE user_id = :userId "
+                    + "AND (created_at, id) < (:createdAt, :id) ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<ArchivedAppNotification> findOlder(
+            @Param("userId") UUID userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    /** Like {@link AppNotificationRepository#streamByUser}, over the archive. */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from ArchivedAppNotification a where a.userId = :userId "
+            + "and a.createdAt >= :from and a.createdAt < :to order by a.createdAt")
+    Stream<ArchivedAppNotification> streamByUser(
+            @Param("userId") UUID userId, @Param("from") Instant from, @Param("to") Instant to);
+}
@@ -0,0 +1,20 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.BroadcastNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, UUID> {
+    /**
+     * Broadcasts that have not expired, newest first.
+     */
+    @Query("select b from BroadcastNotification b where b.expiresAt is null or b.expiresAt > :now "
+            + "order by b.createdAt desc")
+    List<BroadcastNotification> findActive(@Param("now") Instant now);
+}
@@ -0,0 +1,43 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.BroadcastReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BroadcastReceiptRepository extends JpaRepository<BroadcastReceipt, UUID> {
+
+    List<BroadcastReceipt> findByUserIdAndBroadcastIdIn(UUID userId, Collection<UUID> broadcastIds);
+
+    Optional<BroadcastReceipt> findByBroadcastIdAndUserId(UUID broadcastId, UUID userId);
+
+    /**
+     * Records the user's state for a broadcast in one statement, so a concurrent first read and
+     * dismiss cannot both insert. Dismissed is final, and an unchanged state keeps its timestamp.
+     * Clears the persistence context so the receipt read back afterwards is not a stale copy.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            value = "INSERT INTO broadcast_receipts (id, broadcast_id, user_id, state, updated_at) "
+                    + "VALUES (:id, :broadcastId, :userId, :state, now()) "
+                    + "ON CONFLICT (broadcast_id, user_id) "
+                    + "DO UPDATE SET state = EXCLUDED.state, updated_at = EXCLUDED.updated_at "
+                    + "WHERE broadcast_receipts.state <> 'DISMISSED' AND broadcast_receipts.state <> EXCLUDED.state",
+            nativeQuery = true)
+    void upsert(
+            @Param("id") UUID id,
+            @Param("broadcastId") UUID broadcastId,
+            @Param("userId") UUID userId,
+            @Param("state") String state);
+
+    @Modifying
+    @Query("delete from BroadcastReceipt r where r.broadcastId = :broadcastId")
+    int deleteByBroadcastId(@Param("broadcastId") UUID broadcastId);
+}
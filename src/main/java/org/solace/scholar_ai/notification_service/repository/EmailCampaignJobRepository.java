@@ -0,0 +1,70 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.EmailCampaignJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailCampaignJobRepository extends JpaRepository<EmailCampaignJob, UUID> {
+
+    Optional<EmailCampaignJob> findByIdempotencyKey(String idempotencyKey);
+
+    Optional<EmailCampaignJob> findFirstByRequestHashAndCreatedAtAfterOrderByCreatedAtDesc(
+            String requestHash, Instant after);
+
+    /** Serializes submissions of the same request until commit, so two retries cannot both queue it. */
+    @Query(
+            value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended(:requestHash, 33))) l",
+            nativeQuery = true)
+    int lockRequestHash(@Param("requestHash") String requestHash);
+
+    /** Queues a job unless one with the same key exists; concurrent retries cannot both insert. */
+    @Modifying
+    @Query(
+            value = "INSERT INTO email_campaign_jobs (id, idempotency_key, request_hash, status, template_name, "
+                    + "  subject, request_json, total, processed, sent, failed, created_at) "
+                    + "VALUES (:#{#j.id}, :#{#j.idempotencyKey}, :#{#j.requestHash}, 'QUEUED', :#{#j.templateName}, "
+                    + "  :#{#j.subject}, :#{#j.requestJson}, :#{#j.total}, 0, 0, 0, :#{#j.createdAt}) "
+                    + "ON CONFLICT (idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("j") EmailCampaignJob j);
+
+    /** Locks the oldest queued job, skipping one another instance is claiming. */
+    @Query(
+            value = "SELECT * FROM email_campaign_jobs WHERE status = 'QUEUED' ORDER BY created_at LIMIT 1 "
+                    + "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<EmailCampaignJob> lockNextQueued();
+
+    /** Records a finished batch; also the job's heartbeat. A null {@code failuresJson} keeps the stored one. */
+    @Modifying
+    @Query(
+            "update EmailCampaignJob j set j.processed = :processed, j.sent = j.sent + :sent, "
+                    + "j.failed = j.failed + :failed, j.failuresJson = coalesce(:failuresJson, j.failuresJson), j.heartbeatAt = :now where j.id = :id")
+    int addProgress(
+            @Param("id") UUID id,
+            @Param("processed") int processed,
+            @Param("sent") int sent,
+            @Param("failed") int failed,
+            @Param("failuresJson") String failuresJson,
+            @Param("now") Instant now);
+
+    @Modifying
+    @Query("update EmailCampaignJob j set j.status = :completed, j.finishedAt = :now where j.id = :id")
+    int complete(
+            @Param("id") UUID id, @Param("completed") EmailCampaignJob.Status completed, @Param("now") Instant now);
+
+    /** Puts running jobs whose instance stopped heart-beating back in the queue. */
+    @Modifying
+    @Query("update EmailCampaignJob j set j.status = :queued where j.status = :running and j.heartbeatAt < :before")
+    int requeueStale(
+            @Param("before") Instant before,
+            @Param("running") EmailCampaignJob.Status running,
+            @Param("queued") EmailCampaignJob.Status queued);
+}
@@ -0,0 +1,29 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import org.solace.scholar_ai.notification_service.model.NotificationPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationPayloadRepository extends JpaRepository<NotificationPayload, String> {
+
+    /**
+     * Inserts a payload unless one with the same hash exists; concurrent writers of the same content
+     * do not conflict.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO notification_payloads (hash, encoding, content, original_size, created_at) "
+                    + "VALUES (:hash, :encoding, :content, :originalSize, :createdAt) ON CONFLICT (hash) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("hash") String hash,
+            @Param("encoding") String encoding,
+            @Param("content") byte[] content,
+            @Param("originalSize") int originalSize,
+            @Param("createdAt") Instant createdAt);
+}
@@ -0,0 +1,38 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, UUID> {
+    /**
+     * Returns all explicit preferences of a user; types without a row use the defaults.
+     */
+    List<NotificationPreference> findByUserId(UUID userId);
+
+    Optional<NotificationPreference> findByUserIdAndNotificationTypeAndChannel(
+            UUID userId, String notificationType, NotificationPreference.Channel channel);
+
+    /** Sets one preference in a single statement, so concurrent first writes cannot both insert. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            value =
+                    "INSERT INTO notification_preferences (id, user_id, notification_type, channel, enabled, updated_at) "
+                            + "VALUES (:id, :userId, :notificationType, :channel, :enabled, now()) "
+                            + "ON CONFLICT (user_id, notification_type, channel) "
+                            + "DO UPDATE SET enabled = EXCLUDED.enabled, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    void upsert(
+            @Param("id") UUID id,
+            @Param("userId") UUID userId,
+            @Param("notificationType") String notificationType,
+            @Param("channel") String channel,
+            @Param("enabled") boolean enabled);
+}
@@ -1,9 +1,19 @@
 package org.solace.scholar_ai.notification_service.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +22,80 @@ public interface NotificationRecordRepository extends JpaRepository<Notification
      * Returns email notification records for a user ordered by newest first.
      */
     List<NotificationRecord> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    /**
+     * Streams a user's rows created in [from, to), oldest first, through a forward-only cursor. Must
+     * be consumed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select n from NotificationRecord n where n.userId = :userId "
+            + "and n.createdAt >= :from and n.createdAt < :to order by n.createdAt")
+    Stream<NotificationRecord> streamByUser(
+            @Param("userId") UUID userId, @Param("from") Instant from, @Param("to") Instant to);
+
+    /** Failures sharing a notification type and root-cause class. */
+    interface FailureGroup {
+        String getType();
+
+        String getErrorClass();
+
+        long getCount();
+
+        Instant getFirstAt();
+
+        Instant getLastAt();
+    }
+
+    interface StatusCount {
+        String getStatus();
+
+        long getCount();
+    }
+
+    @Query("select n.type as type, n.errorClass as errorClass, count(n) as count, "
+            + "min(n.createdAt) as firstAt, max(n.createdAt) as lastAt from NotificationRecord n "
+            + "where n.status = 'FAILED' and n.createdAt >= :from and n.createdAt < :to "
+            + "group by n.type, n.errorClass order by count(n) desc")
+    List<FailureGroup> groupFailures(@Param("from") Instant from, @Param("to") Instant to);
+
+    /** Failed rows matching the filters, newest first; null type or error class matches any. */
+    @Query("select n from NotificationRecord n where n.status = 'FAILED' "
+            + "and (:type is null or n.type = :type) and (:errorClass is null or n.errorClass = :errorClass) "
+            + "and n.createdAt >= :from and n.createdAt < :to order by n.createdAt desc")
+    List<NotificationRecord> findFailures(
+            @Param("type") String type,
+            @Param("errorClass") String errorClass,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Pageable page);
+
+    /** Ids of failed rows matching the filters, oldest first, so replays go out in original order. */
+    @Query("select n.id from NotificationRecord n where n.status = 'FAILED' "
+            + "and (:type is null or n.type = :type) and (:errorClass is null or n.errorClass = :errorClass) "
+            + "and n.createdAt >= :from and n.createdAt < :to order by n.createdAt")
+    List<UUID> findFailedIds(
+            @Param("type") String type,
+            @Param("errorClass") String errorClass,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Pageable page);
+
+    /** Locks the still-failed rows among {@code ids}, skipping rows another replay holds. */
+    @Query(
+            value = "SELECT * FROM notifications WHERE id IN (:ids) AND status = 'FAILED' "
+                    + "ORDER BY created_at FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationRecord> lockFailed(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update NotificationRecord n set n.status = 'REPLAYED' where n.id in :ids")
+    int markReplayed(@Param("ids") Collection<UUID> ids);
+
+    /** Delivery outcomes of a replay job, by status of the records its resends produced. */
+    @Query("select n.status as status, count(n) as count from NotificationRecord n "
+            + "where n.replayJobId = :jobId group by n.status")
+    List<StatusCount> countByReplayJob(@Param("jobId") UUID jobId);
 }
@@ -0,0 +1,130 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.NotificationStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Counters in {@code notification_stats} and {@code notification_daily_stats}. */
+@Repository
+public interface NotificationStatRepository extends JpaRepository<NotificationStat, NotificationStat.Key> {
+
+    interface DailyCount {
+        String getSource();
+
+        LocalDate getDay();
+
+        long getTotal();
+    }
+
+    @Query("select s from NotificationStat s where s.key.userId = :userId")
+    List<NotificationStat> findByUser(@Param("userId") UUID userId);
+
+    @Query(
+            value = "SELECT source, day, total FROM notification_daily_stats "
+                    + "WHERE user_id = :userId AND day >= :since ORDER BY day",
+            nativeQuery = true)
+    List<DailyCount> findDaily(@Param("userId") UUID userId, @Param("since") LocalDate since);
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO notification_stats (user_id, source, category, priority, status, total) "
+                    + "VALUES (:userId, :source, :category, :priority, :status, :delta) "
+                    + "ON CONFLICT (user_id, source, category, priority, status) "
+                    + "DO UPDATE SET total = notification_stats.total + EXCLUDED.total",
+            nativeQuery = true)
+    void add(
+            @Param("userId") UUID userId,
+            @Param("source") String source,
+            @Param("category") String category,
+            @Param("priority") String priority,
+            @Param("status") String status,
+            @Param("delta") long delta);
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO notification_daily_stats (user_id, source, day, total) "
+                    + "VALUES (:userId, :source, :day, :delta) "
+                    + "ON CONFLICT (user_id, source, day) "
+                    + "DO UPDATE SET total = notification_daily_stats.total + EXCLUDED.total",
+            nativeQuery = true)
+    void addDaily(
+            @Param("userId") UUID userId,
+            @Param("source") String source,
+            @Param("day") LocalDate day,
+            @Param("delta") long delta);
+
+    /** Shared per-user lock taken by incremental updates; released at commit. */
+    @Query(
+            value =
+                    "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(hashtextextended(CAST(:userId AS text), 46))) l",
+            nativeQuery = true)
+    int lockShared(@Param("userId") UUID userId);
+
+    /** Exclusive per-user lock taken by reconciliation, so no increment lands mid-rebuild. */
+    @Query(
+            value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended(CAST(:userId AS text), 46))) l",
+            nativeQuery = true)
+    int lockExclusive(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_stats WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUser(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_daily_stats WHERE user_id = :userId", nativeQuery = true)
+    void deleteDailyByUser(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO notification_stats (user_id, source, category, priority, status, total) "
+                    + "SELECT CAST(:userId AS uuid), 'APP', coalesce(category, ''), coalesce(priority, ''), "
+                    + "  coalesce(status, 'UNREAD'), count(*) "
+                    + "FROM (SELECT category, priority, status FROM app_notifications WHERE user_id = :userId "
+                    + "  UNION ALL SELECT category, priority, 'READ' FROM app_notifications_archive "
+                    + "  WHERE user_id = :userId) a "
+                    + "GROUP BY 3, 4, 5 "
+                    + "UNION ALL "
+                    + "SELECT CAST(:userId AS uuid), 'EMAIL', coalesce(type, ''), '', coalesce(status, ''), count(*) "
+                    + "FROM notifications WHERE user_id = :userId GROUP BY 3, 5",
+            nativeQuery = true)
+    void rebuild(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO notification_daily_stats (user_id, source, day, total) "
+                    + "SELECT CAST(:userId AS uuid), 'APP', d, count(*) FROM ("
+                    + "  SELECT CAST(created_at AT TIME ZONE 'UTC' AS date) AS d FROM app_notifications "
+                    + "  WHERE user_id = :userId "
+                    + "  UNION ALL SELECT CAST(created_at AT TIME ZONE 'UTC' AS date) FROM app_notifications_archive "
+                    + "  WHERE user_id = :userId) a GROUP BY d "
+                    + "UNION ALL "
+                    + "SELECT CAST(:userId AS uuid), 'EMAIL', CAST(created_at AT TIME ZONE 'UTC' AS date), count(*) "
+                    + "FROM notifications WHERE user_id = :userId GROUP BY 3",
+            nativeQuery = true)
+    void rebuildDaily(@Param("userId") UUID userId);
+
+    /** Next users after {@code after} in id order, from each table that can hold a user's rows. */
+    @Query(
+            value = "SELECT DISTINCT user_id FROM app_notifications WHERE user_id > :after "
+                    + "ORDER BY user_id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> appUsersAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Query(
+            value = "SELECT DISTINCT user_id FROM notifications WHERE user_id > :after "
+                    + "ORDER BY user_id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> deliveryUsersAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Query(
+            value = "SELECT DISTINCT user_id FROM notification_stats WHERE user_id > :after "
+                    + "ORDER BY user_id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> statUsersAfter(@Param("after") UUID after, @Param("limit") int limit);
+}
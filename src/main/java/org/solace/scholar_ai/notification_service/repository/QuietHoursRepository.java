@@ -0,0 +1,9 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QuietHoursRepository extends JpaRepository<QuietHours, UUID> {}
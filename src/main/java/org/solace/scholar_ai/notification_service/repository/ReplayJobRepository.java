@@ -0,0 +1,57 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.ReplayJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReplayJobRepository extends JpaRepository<ReplayJob, UUID> {
+
+    List<ReplayJob> findAllByOrderByCreatedAtDesc(Pageable page);
+
+    /** Locks the oldest queued job, skipping one another instance is claiming. */
+    @Query(
+            value = "SELECT * FROM replay_jobs WHERE status = 'QUEUED' ORDER BY created_at LIMIT 1 "
+                    + "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<ReplayJob> lockNextQueued();
+
+    /**
+     * Adds progress without touching the status, so a concurrent cancel is never overwritten.
+     */
+    @Modifying
+    @Query("update ReplayJob j set j.published = j.published + :published, j.skipped = j.skipped + :skipped, "
+            + "j.publishFailed = j.publishFailed + :failed, j.lastError = coalesce(:lastError, j.lastError), "
+            + "j.heartbeatAt = :now where j.id = :id")
+    int addProgress(
+            @Param("id") UUID id,
+            @Param("published") int published,
+            @Param("skipped") int skipped,
+            @Param("failed") int failed,
+            @Param("lastError") String lastError,
+            @Param("now") Instant now);
+
+    @Modifying
+    @Query("update ReplayJob j set j.status = :to, j.finishedAt = :now where j.id = :id and j.status in :from")
+    int transition(
+            @Param("id") UUID id,
+            @Param("from") List<ReplayJob.Status> from,
+            @Param("to") ReplayJob.Status to,
+            @Param("now") Instant now);
+
+    /** Puts running jobs whose instance stopped heart-beating back in the queue. */
+    @Modifying
+    @Query("update ReplayJob j set j.status = :queued where j.status = :running and j.heartbeatAt < :before")
+    int requeueStale(
+            @Param("before") Instant before,
+            @Param("running") ReplayJob.Status running,
+            @Param("queued") ReplayJob.Status queued);
+}
@@ -0,0 +1,60 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.solace.scholar_ai.notification_service.model.ScheduledNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScheduledNotificationRepository extends JpaRepository<ScheduledNotification, UUID> {
+
+    /** Minimal view of a pending entry, enough to put it back on the timing wheel. */
+    interface PendingEntry {
+        UUID getId();
+
+        Instant getDeliverAt();
+    }
+
+    /**
+     * Streams entries in a status; used with PENDING to rebuild the in-memory wheel after a restart.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select s.id as id, s.deliverAt as deliverAt from ScheduledNotification s where s.status = :status")
+    Stream<PendingEntry> streamByStatus(@Param("status") ScheduledNotification.Status status);
+
+    /**
+     * Entries due before {@code before}; with PENDING these are items that should already have fired,
+     * e.g. because the instance holding them in memory went away.
+     */
+    @Query("select s.id as id, s.deliverAt as deliverAt from ScheduledNotification s "
+            + "where s.status = :status and s.deliverAt < :before order by s.deliverAt")
+    List<PendingEntry> findByStatusAndDeliverAtBefore(
+            @Param("status") ScheduledNotification.Status status, @Param("before") Instant before, Pageable page);
+
+    /**
+     * Locks the still-pending rows among {@code ids}, skipping rows another instance is dispatching.
+     */
+    @Query(
+            value = "SELECT * FROM scheduled_notifications WHERE id IN (:ids) AND status = 'PENDING' "
+                    + "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ScheduledNotification> lockPending(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update ScheduledNotification s set s.status = :status, s.dispatchedAt = :now where s.id in :ids")
+    int updateStatus(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") ScheduledNotification.Status status,
+            @Param("now") Instant now);
+}
@@ -0,0 +1,240 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.ArchivedAppNotification;
+import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+import org.solace.scholar_ai.notification_service.repository.ArchivedAppNotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves read app notifications older than {@code notification.archive.older-than-days} out of the
+ * hot table into {@code app_notifications_archive}, and reads them back for "load older" paging and
+ * exports.
+ *
+ * <p>Each batch locks its rows with {@code FOR UPDATE SKIP LOCKED}, inserts the archived copies and
+ * deletes the originals in one transaction, so instances can archive concurrently and a row is never
+ * in both tables once committed. A run stops after {@code max-batches-per-run} to keep its load
+ * bounded; the next run picks up the rest.
+ */
+@Service
+@Slf4j
+public class AppNotificationArchiveService {
+
+    /** Everything but the archive's key columns. */
+    record Body(
+            AppNotification.NotificationKind type,
+            String category,
+            String title,
+            String message,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String actionText,
+            String relatedProjectId,
+            String relatedPaperId,
+            String relatedTaskId,
+            String metadataHash,
+            Instant updatedAt,
+            Instant readAt,
+            Integer collapsedCount) {}
+
+    private final AppNotificationRepository hotRepository;
+    private final ArchivedAppNotificationRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Counter archived;
+
+    @Value("${notification.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.archive.older-than-days:30}")
+    private int olderThanDays;
+
+    @Value("${notification.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    public AppNotificationArchiveService(
+            AppNotificationRepository hotRepository,
+            ArchivedAppNotificationRepository archiveRepository,
+            TransactionTemplate transactionTemplate,
+            EntityManager entityManager,
+            MeterRegistry meterRegistry) {
+        this.hotRepository = hotRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.archived = Counter.builder("notification.archive.moved")
+                .description("App notifications moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${notification.archive.interval-ms:600000}",
+            initialDelayString = "${notification.archive.initial-delay-ms:300000}")
+    public void archiveAged() {
+        if (!enabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(olderThanDays));
+        long start = System.nanoTime();
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved;
+            try {
+                moved = archiveBatch(cutoff);
+            } catch (RuntimeException e) {
+                log.warn("Archiving batch failed, retrying next run: {}", e.getMessage());
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info(
+                    "Archived {} read notifications created before {} in {} ms",
+                    total,
+                    cutoff,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /** Moves one batch; returns how many rows moved. */
+    int archiveBatch(Instant cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<AppNotification> rows = hotRepository.lockArchivable(cutoff, batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            Instant now = Instant.now();
+            for (AppNotification row : rows) {
+                entityManager.persist(encode(row, now));
+            }
+            entityManager.flush();
+            hotRepository.deleteAllByIdInBatch(
+                    rows.stream().map(AppNotification::getId).toList());
+            return rows.size();
+        });
+        archived.increment(moved);
+        return moved;
+    }
+
+    /** Archived rows before the cursor, newest first, as detached notifications. */
+    public List<AppNotification> findOlder(UUID userId, Instant createdAt, UUID id, int limit) {
+        return archiveRepository.findOlder(userId, createdAt, id, limit).stream()
+                .map(this::decode)
+                .toList();
+    }
+
+    /** Streams archived rows in [from, to), oldest first; must be consumed inside a transaction. */
+    public Stream<AppNotification> streamByUser(UUID userId, Instant from, Instant to) {
+        return archiveRepository.streamByUser(userId, from, to).map(this::decode);
+    }
+
+    /** Deletes an archived row; returns its key fields (enough for statistics) if it existed. */
+    public Optional<AppNotification> delete(UUID id) {
+        Optional<ArchivedAppNotification> row = archiveRepository.findById(id);
+        row.ifPresent(archiveRepository::delete);
+        return row.map(a -> AppNotification.builder()
+                .id(a.getId())
+                .userId(a.getUserId())
+                .category(a.getCategory())
+                .priority(a.getPriority())
+                .status(AppNotification.NotificationStatus.READ)
+                .createdAt(a.getCreatedAt())
+                .archived(true)
+                .build());
+    }
+
+    ArchivedAppNotification encode(AppNotification n, Instant archivedAt) {
+        Body body = new Body(
+                n.getType(),
+                n.getCategory(),
+                n.getTitle(),
+                n.getMessage(),
+                n.getPriority(),
+                n.getActionUrl(),
+                n.getActionText(),
+                n.getRelatedProjectId(),
+                n.getRelatedPaperId(),
+                n.getRelatedTaskId(),
+                n.getMetadataHash(),
+                n.getUpdatedAt(),
+                n.getReadAt(),
+                n.getCollapsedCount());
+        try {
+            byte[] raw = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(raw);
+            }
+            return ArchivedAppNotification.builder()
+                    .id(n.getId())
+                    .userId(n.getUserId())
+                    .createdAt(n.getCreatedAt())
+                    .category(n.getCategory())
+                    .priority(n.getPriority())
+                    .archivedAt(archivedAt)
+                    .content(out.toByteArray())
+                    .originalSize(raw.length)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive notification " + n.getId(), e);
+        }
+    }
+
+    AppNotification decode(ArchivedAppNotification archived) {
+        Body body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.getContent()))) {
+            body = objectMapper.readValue(in, Body.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archived notification " + archived.getId(), e);
+        }
+        return AppNotification.builder()
+                .id(archived.getId())
+                .userId(archived.getUserId())
+                .createdAt(archived.getCreatedAt())
+                .type(body.type())
+                .category(body.category())
+                .title(body.title())
+                .message(body.message())
+                .priority(body.priority())
+                .status(AppNotification.NotificationStatus.READ)
+                .actionUrl(body.actionUrl())
+                .actionText(body.actionText())
+                .relatedProjectId(body.relatedProjectId())
+                .relatedPaperId(body.relatedPaperId())
+                .relatedTaskId(body.relatedTaskId())
+                .metadataHash(body.metadataHash())
+                .updatedAt(body.updatedAt())
+                .readAt(body.readAt())
+                .collapsedCount(body.collapsedCount() != null ? body.collapsedCount() : 1)
+                .archived(true)
+                .build();
+    }
+}
@@ -1,29 +1,204 @@
 package org.solace.scholar_ai.notification_service.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
 import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AppNotificationService {
 
+    /** Private-use characters mark matches in snippets; swapped for mark tags after HTML escaping. */
+    private static final String MATCH_START = "\uE000";
+
+    private static final String MATCH_END = "\uE001";
+    private static final String TITLE_HIGHLIGHT =
+            "StartSel=" + MATCH_START + ", StopSel=" + MATCH_END + ", HighlightAll=true";
+    private static final String MESSAGE_HIGHLIGHT = "StartSel=" + MATCH_START + ", StopSel=" + MATCH_END
+            + ", MaxFragments=2, MaxWords=25, MinWords=8, FragmentDelimiter=\" ... \"";
+    private static final Instant MAX_INSTANT = Instant.parse("9999-12-31T23:59:59Z");
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    /** Descending (created_at, id) as PostgreSQL orders it: uuids compare as unsigned bytes. */
+    private static final Comparator<AppNotification> NEWEST_FIRST = Comparator.comparing(AppNotification::getCreatedAt)
+            .thenComparing(n -> n.getId().toString())
+            .reversed();
+
     private final AppNotificationRepository repository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BroadcastNotificationService broadcastService;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AppNotificationArchiveService archive;
+    private final NotificationStatsService stats;
+    private final PayloadStore payloadStore;
+    private final DeliveryTracer deliveryTracer;
+
+    @Value("${notification.app.collapse.enabled:true}")
+    private boolean collapseEnabled;
+
+    /** A search match with its rank and HTML-safe snippets where matches are wrapped in mark tags. */
+    public record SearchResult(
+            AppNotification notification, float rank, String titleHighlight, String messageHighlight) {}
+
+    /** One page of results; {@code nextCursor} is null on the last page. */
+    public record SearchPage(List<SearchResult> items, String nextCursor) {}
+
+    /** One page of history; {@code nextCursor} is null once both the hot table and archive run out. */
+    public record HistoryPage(List<AppNotification> items, String nextCursor) {}
 
     @Transactional(readOnly = true)
     public List<AppNotification> listByUser(UUID userId) {
         log.debug("Listing notifications for user {}", userId);
-        return repository.findByUserIdOrderByCreatedAtDesc(userId);
+        readYourWrites.routeReads(userId);
+        List<AppNotification> own = withMetadata(repository.findByUserIdOrderByCreatedAtDesc(userId));
+        List<AppNotification> broadcasts = broadcastService.listForUser(userId);
+        if (broadcasts.isEmpty()) {
+            return own;
+        }
+        List<AppNotification> merged = new ArrayList<>(own.size() + broadcasts.size());
+        merged.addAll(own);
+        merged.addAll(broadcasts);
+        merged.sort(Comparator.comparing(AppNotification::getCreatedAt).reversed());
+        return merged;
+    }
+
+    /**
+     * Ranked full-text search over the user's own notifications (broadcasts are not included).
+     * Accepts web-search syntax: quoted phrases, {@code or}, and {@code -word}.
+     */
+    @Transactional(readOnly = true)
+    public SearchPage search(UUID userId, String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        readYourWrites.routeReads(userId);
+        float cursorRank = Float.POSITIVE_INFINITY;
+        Instant cursorCreatedAt = MAX_INSTANT;
+        UUID cursorId = MAX_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts =
+                        new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+                cursorRank = Float.intBitsToFloat(Integer.parseInt(parts[0]));
+                if (Float.isNaN(cursorRank)) {
+                    throw new IllegalArgumentException("rank is not a number");
+                }
+                cursorCreatedAt = cursorInstant(parts[1]);
+                cursorId = UUID.fromString(parts[2]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor", e);
+            }
+        }
+
+        List<AppNotificationRepository.SearchHit> hits = repository.search(
+                userId, query, cursorRank, cursorCreatedAt, cursorId, limit, TITLE_HIGHLIGHT, MESSAGE_HIGHLIGHT);
+        Map<UUID, AppNotification> rows = new HashMap<>();
+        withMetadata(repository.findAllById(hits.stream()
+                        .map(AppNotificationRepository.SearchHit::getId)
+                        .toList()))
+                .forEach(n -> rows.put(n.getId(), n));
+
+        List<SearchResult> items = new ArrayList<>(hits.size());
+        for (AppNotificationRepository.SearchHit hit : hits) {
+            AppNotification notification = rows.get(hit.getId());
+            if (notification != null) {
+                items.add(new SearchResult(
+                        notification,
+                        hit.getRank(),
+                        highlight(hit.getTitleHighlight()),
+                        highlight(hit.getMessageHighlight())));
+            }
+        }
+        String nextCursor = null;
+        if (hits.size() == limit && !items.isEmpty()) {
+            SearchResult last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString((Float.floatToIntBits(last.rank()) + "|"
+                                    + last.notification().getCreatedAt() + "|"
+                                    + last.notification().getId())
+                            .getBytes(StandardCharsets.UTF_8));
+        }
+        return new SearchPage(items, nextCursor);
+    }
+
+    /**
+     * A user's own notifications newest first, keyset-paginated on (created_at, id). Unread rows are
+     * never archived, so the hot table and the archive overlap in time; every page reads up to
+     * {@code limit} rows from each, after the same cursor, and merges them. Broadcasts are not
+     * included.
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage listOlder(UUID userId, String cursor, int limit) {
+        readYourWrites.routeReads(userId);
+        Instant createdAt = MAX_INSTANT;
+        UUID id = MAX_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts =
+                        new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                createdAt = cursorInstant(parts[0]);
+                id = UUID.fromString(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor", e);
+            }
+        }
+
+        List<AppNotification> items = new ArrayList<>(repository.findOlder(userId, createdAt, id, limit));
+        items.addAll(archive.findOlder(userId, createdAt, id, limit));
+        items.sort(NEWEST_FIRST);
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+        }
+        withMetadata(items);
+
+        String nextCursor = null;
+        if (items.size() == limit) {
+            AppNotification last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString((last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new HistoryPage(items, nextCursor);
+    }
+
+    /** A cursor timestamp; anything outside what the database can store is rejected as invalid input. */
+    private static Instant cursorInstant(String value) {
+        Instant instant = Instant.parse(value);
+        if (instant.isBefore(Instant.EPOCH) || instant.isAfter(MAX_INSTANT)) {
+            throw new IllegalArgumentException("timestamp out of range: " + value);
+        }
+        return instant;
+    }
+
+    private static String highlight(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet).replace(MATCH_START, "<mark>").replace(MATCH_END, "</mark>");
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnread(UUID userId) {
+        readYourWrites.routeReads(userId);
+        return repository.countByUserIdAndStatus(userId, AppNotification.NotificationStatus.UNREAD)
+                + broadcastService.countUnread(userId);
     }
 
     @Transactional
@@ -40,54 +215,190 @@ public class AppNotificationService {
             String relatedPaperId,
             String relatedTaskId,
             Map<String, Object> metadata) {
-        try {
-            AppNotification saved = repository.save(AppNotification.builder()
-                    .userId(userId)
-                    .type(type)
-                    .category(category)
-                    .title(title)
-                    .message(message)
-                    .priority(priority)
-                    .status(AppNotification.NotificationStatus.UNREAD)
-                    .actionUrl(actionUrl)
-                    .actionText(actionText)
-                    .relatedProjectId(relatedProjectId)
-                    .relatedPaperId(relatedPaperId)
-                    .relatedTaskId(relatedTaskId)
-                    .metadataJson(metadata != null ? objectMapper.writeValueAsString(metadata) : null)
-                    .createdAt(Instant.now())
-                    .updatedAt(Instant.now())
-                    .build());
-            log.info("Created app notification {} for user {} of type {}", saved.getId(), userId, type);
-            return saved;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to persist app notification", e);
+        long start = System.nanoTime();
+        AppNotification saved = persist(draft(
+                userId,
+                type,
+                category,
+                title,
+                message,
+                priority,
+                actionUrl,
+                actionText,
+                relatedProjectId,
+                relatedPaperId,
+                relatedTaskId,
+                metadata));
+        deliveryTracer.record(DeliveryStage.DB_WRITE, start);
+        log.info(
+                "Created app notification {} for user {} of type {} (x{})",
+                saved.getId(),
+                userId,
+                type,
+                saved.getCollapsedCount());
+        return saved;
+    }
+
+    /**
+     * Inserts all drafts in one transaction, returned in the same order. With JDBC batching enabled
+     * the rows go out as a few multi-row INSERTs rather than one round-trip each; drafts with a
+     * collapse key are upserted one by one.
+     */
+    @Transactional
+    public List<AppNotification> createAll(List<AppNotification> drafts) {
+        List<AppNotification> inserted = repository.saveAll(
+                drafts.stream().filter(d -> d.getCollapseKey() == null).toList());
+        inserted.forEach(stats::appCreated);
+        List<AppNotification> saved = new ArrayList<>(drafts.size());
+        int next = 0;
+        for (AppNotification draft : drafts) {
+            saved.add(draft.getCollapseKey() == null ? inserted.get(next++) : upsertCollapsed(draft));
+        }
+        log.info("Created {} app notifications in batch", saved.size());
+        return saved;
+    }
+
+    private AppNotification persist(AppNotification draft) {
+        if (draft.getCollapseKey() != null) {
+            return upsertCollapsed(draft);
         }
+        AppNotification saved = repository.save(draft);
+        stats.appCreated(saved);
+        return saved;
+    }
+
+    /**
+     * Folds the draft into the user's unread row with the same collapse key, or inserts it. The
+     * draft is returned with the row's id and count.
+     */
+    private AppNotification upsertCollapsed(AppNotification draft) {
+        draft.setId(UUID.randomUUID());
+        AppNotificationRepository.CollapseResult result = repository.upsertCollapsed(draft);
+        draft.setId(result.getId());
+        draft.setCollapsedCount(result.getCollapsedCount());
+        if (result.getCollapsedCount() == 1) {
+            stats.appCreated(draft);
+        } else if (result.getPreviousCreatedAt() != null) {
+            stats.appCollapsed(
+                    AppNotification.builder()
+                            .userId(draft.getUserId())
+                            .category(draft.getCategory())
+                            .priority(
+                                    result.getPreviousPriority() != null
+                                            ? AppNotification.NotificationPriority.valueOf(result.getPreviousPriority())
+                                            : null)
+                            .status(AppNotification.NotificationStatus.UNREAD)
+                            .createdAt(result.getPreviousCreatedAt())
+                            .build(),
+                    draft);
+        }
+        // Otherwise the row was committed concurrently and its old values are unknown; the
+        // periodic reconciliation corrects the counters
+        return draft;
+    }
+
+    /**
+     * Key under which repeats of an event fold into one unread row: the category plus whichever
+     * related ids are set. Null, so never collapsed, without a category or any related id.
+     */
+    static String collapseKey(String category, String relatedProjectId, String relatedPaperId, String relatedTaskId) {
+        if (category == null || (relatedProjectId == null && relatedPaperId == null && relatedTaskId == null)) {
+            return null;
+        }
+        return category + "|" + Objects.toString(relatedProjectId, "") + "|" + Objects.toString(relatedPaperId, "")
+                + "|" + Objects.toString(relatedTaskId, "");
+    }
+
+    /** Builds an unsaved notification; shared by single and batch creation. */
+    public AppNotification draft(
+            UUID userId,
+            AppNotification.NotificationKind type,
+            String category,
+            String title,
+            String message,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String actionText,
+            String relatedProjectId,
+            String relatedPaperId,
+            String relatedTaskId,
+            Map<String, Object> metadata) {
+        final PayloadStore.Stored stored = payloadStore.store(metadata);
+        return AppNotification.builder()
+                .userId(userId)
+                .type(type)
+                .category(category)
+                .title(title)
+                .message(message)
+                .priority(priority)
+                .status(AppNotification.NotificationStatus.UNREAD)
+                .actionUrl(actionUrl)
+                .actionText(actionText)
+                .relatedProjectId(relatedProjectId)
+                .relatedPaperId(relatedPaperId)
+                .relatedTaskId(relatedTaskId)
+                .metadataHash(stored != null ? stored.hash() : null)
+                .metadataJson(stored != null ? stored.json() : null)
+                .collapseKey(
+                        collapseEnabled ? collapseKey(category, relatedProjectId, relatedPaperId, relatedTaskId) : null)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
     }
 
+    private List<AppNotification> withMetadata(List<AppNotification> notifications) {
+        Map<String, String> payloads = payloadStore.getAll(notifications.stream()
+                .map(AppNotification::getMetadataHash)
+                .filter(Objects::nonNull)
+                .toList());
+        notifications.forEach(n -> n.setMetadataJson(payloads.get(n.getMetadataHash())));
+        return notifications;
+    }
+
+    /**
+     * Marks a notification read. Broadcast ids are per-user views, so {@code userId} is required
+     * for them and ignored for ordinary notifications.
+     */
     @Transactional
-    public AppNotification markRead(UUID id) {
+    public AppNotification markRead(UUID id, UUID userId) {
         return repository
                 .findById(id)
                 .map(n -> {
+                    readYourWrites.recordWrite(n.getUserId());
+                    stats.appRead(n);
                     n.setStatus(AppNotification.NotificationStatus.READ);
                     n.setReadAt(Instant.now());
                     AppNotification updated = repository.save(n);
+                    updated.setMetadataJson(payloadStore.get(updated.getMetadataHash()));
                     log.info("Marked notification {} as read", id);
                     return updated;
                 })
+                .or(() -> {
+                    readYourWrites.recordWrite(userId);
+                    return userId != null ? broadcastService.markRead(id, userId) : Optional.empty();
+                })
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
     }
 
     @Transactional
-    public void markMultipleRead(List<UUID> ids) {
-        ids.forEach(this::markRead);
+    public void markMultipleRead(List<UUID> ids, UUID userId) {
+        ids.forEach(id -> markRead(id, userId));
         log.info("Marked {} notifications as read", ids.size());
     }
 
+    /** Deletes a notification; for a broadcast this only hides it from {@code userId}. */
     @Transactional
-    public void delete(UUID id) {
-        repository.deleteById(id);
+    public void delete(UUID id, UUID userId) {
+        readYourWrites.recordWrite(userId);
+        if (userId != null && !repository.existsById(id) && broadcastService.dismiss(id, userId)) {
+            log.info("Dismissed broadcast {} for user {}", id, userId);
+            return;
+        }
+        repository.findById(id).ifPresent(n -> {
+            repository.delete(n);
+            stats.appDeleted(n);
+        });
+        archive.delete(id).ifPresent(stats::appDeleted);
         log.info("Deleted notification {}", id);
     }
 }
@@ -0,0 +1,355 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind buffer for audit {@link NotificationRecord}s, taking the insert off the listener
+ * thread.
+ *
+ * <p>Records go into a bounded queue. A background thread flushes it with batched inserts when the
+ * batch size is reached or the flush interval elapses. When the queue is full the caller writes
+ * synchronously instead, so a burst slows delivery down rather than dropping audit rows. A flush
+ * that fails, typically because the database is down, spills the batch to a local JSON-lines file.
+ * The file is replayed after the next successful flush. On shutdown the drain coordinator flushes
+ * what is left, and anything that cannot be written in time is spilled.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.audit.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class AuditWriteBehindBuffer implements PendingWriteFlusher {
+
+    /** A record plus the template data whose payload hash is resolved at flush time. */
+    record PendingRecord(NotificationRecord record, Object templateData) {}
+
+    private final NotificationRecordRepository repository;
+    private final PayloadStore payloadStore;
+    private final BlockingQueue<PendingRecord> queue;
+    private final int batchSize;
+    private final Path spillFile;
+    private final Path replayingFile;
+    private final Path rejectedFile;
+    private final ObjectMapper spillMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "audit-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Guards the spill file: overflow writers append without the flush lock while a replay claims it
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final Counter overflow;
+    private final Counter spilled;
+
+    public AuditWriteBehindBuffer(
+            NotificationRecordRepository repository,
+            PayloadStore payloadStore,
+            MeterRegistry meterRegistry,
+            @Value("${notification.audit.write-behind.capacity:10000}") int capacity,
+            @Value("${notification.audit.write-behind.batch-size:200}") int batchSize,
+            @Value("${notification.audit.write-behind.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${notification.audit.write-behind.spill-file:./data/audit-spill.jsonl}") String spillFile) {
+        this.repository = repository;
+        this.payloadStore = payloadStore;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.spillFile = Path.of(spillFile);
+        this.replayingFile = this.spillFile.resolveSibling(this.spillFile.getFileName() + ".replaying");
+        this.rejectedFile = this.spillFile.resolveSibling(this.spillFile.getFileName() + ".rejected");
+        this.flushTimer = Timer.builder("notification.audit.flush")
+                .description("Time to write one audit batch")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("notification.audit.overflow")
+                .description("Audit records written synchronously because the buffer was full")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("notification.audit.spilled")
+                .description("Audit records spilled to the local file")
+                .register(meterRegistry);
+        Gauge.builder("notification.audit.buffer.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("notification.audit.buffer.capacity", () -> capacity).register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Queues a record; writes it synchronously if the buffer is full. */
+    public void enqueue(NotificationRecord record, Object templateData) {
+        PendingRecord pending = new PendingRecord(record, templateData);
+        if (!queue.offer(pending)) {
+            overflow.increment();
+            write(List.of(pending));
+            return;
+        }
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flushSafely();
+            });
+        }
+    }
+
+    @Override
+    public void flushPending(Duration timeout) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            if (!flushOnce()) {
+                break;
+            }
+        }
+        List<PendingRecord> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            log.warn("Spilling {} audit records not written before the drain deadline", left.size());
+            spill(left);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flushPending(Duration.ofSeconds(5));
+    }
+
+    private void flushSafely() {
+        try {
+            if (queue.isEmpty() && (Files.exists(spillFile) || Files.exists(replayingFile))) {
+                // Idle: still retry records spilled earlier, e.g. by a previous run
+                flushLock.lock();
+                try {
+                    replaySpill();
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+            while (queue.size() > 0 && flushOnce()) {
+                if (queue.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Audit flush failed", e);
+        }
+    }
+
+    /** Writes one batch; returns false if it had to be spilled. */
+    private boolean flushOnce() {
+        flushLock.lock();
+        try {
+            List<PendingRecord> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return true;
+            }
+            if (!write(batch)) {
+                return false;
+            }
+            replaySpill();
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean write(List<PendingRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            List<NotificationRecord> records = new ArrayList<>(batch.size());
+            for (PendingRecord pending : batch) {
+                pending.record().setTemplateDataHash(payloadStore.put(pending.templateData()));
+                records.add(pending.record());
+            }
+            repository.saveAll(records);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to write {} audit records, spilling to {}: {}", batch.size(), spillFile, e.getMessage());
+            batch.forEach(pending -> {
+                pending.record().setId(null);
+                pending.record().setTemplateDataHash(null);
+            });
+            spill(batch);
+            return false;
+        }
+    }
+
+    private void spill(List<PendingRecord> batch) {
+        spillLock.lock();
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(
+                    spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PendingRecord pending : batch) {
+                    out.write(spillMapper.writeValueAsString(pending));
+                    out.newLine();
+                }
+            }
+            spilled.increment(batch.size());
+        } catch (IOException e) {
+            // Last resort: the records are at least in the log
+            log.error("Could not spill {} audit records, logging them instead", batch.size(), e);
+            batch.forEach(pending -> log.error("Unwritten audit record: {}", pending));
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Replays spilled records once the database accepts writes again. Caller holds the flush lock
+     * (package-private for tests). Lines that do not parse are moved to the rejected file and skipped.
+     * If the database fails again or the file cannot be read to the end, the lines not yet replayed
+     * go back into the spill file; if even that fails, the replay file is kept and the next replay
+     * appends to it rather than replacing it, so records may be written twice but are never lost.
+     */
+    void replaySpill() {
+        try {
+            claimSpill();
+        } catch (IOException e) {
+            log.error("Could not claim spilled audit records in {}", spillFile, e);
+            return;
+        }
+        if (!Files.exists(replayingFile)) {
+            return;
+        }
+        int replayed = 0;
+        long consumed = 0;
+        boolean complete = false;
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        try (BufferedReader in = openReplaying()) {
+            String line;
+            boolean writing = true;
+            while (writing && (line = in.readLine()) != null) {
+                consumed++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(spillMapper.readValue(line, PendingRecord.class));
+                } catch (JsonProcessingException e) {
+                    reject(line, e);
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    // A failed write spills its batch again; stop instead of spilling the rest one by one
+                    writing = write(batch);
+                    replayed += writing ? batch.size() : 0;
+                    batch.clear();
+                }
+            }
+            if (writing && !batch.isEmpty()) {
+                replayed += write(batch) ? batch.size() : 0;
+                batch.clear();
+            }
+            complete = writing;
+        } catch (IOException e) {
+            log.error("Failed to read spilled audit records from {}", replayingFile, e);
+        }
+        if (!batch.isEmpty()) {
+            replayed += write(batch) ? batch.size() : 0;
+        }
+        try {
+            if (!complete) {
+                requeueFrom(consumed);
+            }
+            Files.delete(replayingFile);
+        } catch (IOException e) {
+            log.error("Keeping {} for the next replay", replayingFile, e);
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} spilled audit records", replayed);
+        }
+    }
+
+    /** Moves the spill file aside for replay, appending to whatever an interrupted replay left there. */
+    private void claimSpill() throws IOException {
+        spillLock.lock();
+        try {
+            if (!Files.exists(spillFile)) {
+                return;
+            }
+            if (Files.exists(replayingFile)) {
+                try (OutputStream out = Files.newOutputStream(replayingFile, StandardOpenOption.APPEND)) {
+                    Files.copy(spillFile, out);
+                }
+                Files.delete(spillFile);
+            } else {
+                Files.move(spillFile, replayingFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /** Appends the replay file's lines after the first {@code skip} back to the spill file. */
+    private void requeueFrom(long skip) throws IOException {
+        spillLock.lock();
+        try (BufferedReader in = openReplaying();
+                BufferedWriter out = Files.newBufferedWriter(
+                        spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            String line;
+            long skipped = 0;
+            while ((line = in.readLine()) != null) {
+                if (skipped < skip) {
+                    skipped++;
+                } else if (!line.isBlank()) {
+                    out.write(line);
+                    out.newLine();
+                }
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /** Sets an unreadable spilled line aside, so it neither blocks the replay nor is lost. */
+    private void reject(String line, JsonProcessingException e) {
+        log.warn("Moving unreadable spilled audit record to {}: {}", rejectedFile, e.getOriginalMessage());
+        try (BufferedWriter out = Files.newBufferedWriter(
+                rejectedFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line);
+            out.newLine();
+        } catch (IOException io) {
+            log.error("Could not set aside unreadable audit record, logging it instead: {}", line, io);
+        }
+    }
+
+    /** Opens the replay file, decoding invalid bytes leniently so a damaged line is rejected, not stuck. */
+    private BufferedReader openReplaying() throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(replayingFile), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,189 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.BroadcastNotification;
+import org.solace.scholar_ai.notification_service.model.BroadcastReceipt;
+import org.solace.scholar_ai.notification_service.repository.BroadcastNotificationRepository;
+import org.solace.scholar_ai.notification_service.repository.BroadcastReceiptRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * SYSTEM notifications addressed to every user. A broadcast is a single row. Users only get a
+ * receipt row once they read or dismiss it, so sending one costs one insert whatever the number of
+ * users. Reads merge the active broadcasts, which are few and cached, with the caller's receipts.
+ */
+@Service
+@Slf4j
+public class BroadcastNotificationService {
+
+    private static final String ACTIVE = "active";
+
+    private final BroadcastNotificationRepository repository;
+    private final BroadcastReceiptRepository receiptRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadingCache<String, List<BroadcastNotification>> active;
+
+    public BroadcastNotificationService(
+            BroadcastNotificationRepository repository,
+            BroadcastReceiptRepository receiptRepository,
+            @Value("${notification.broadcast.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.repository = repository;
+        this.receiptRepository = receiptRepository;
+        this.active = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(key -> List.copyOf(repository.findActive(Instant.now())));
+    }
+
+    @Transactional
+    public BroadcastNotification create(
+            String category,
+            String title,
+            String message,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String actionText,
+            Instant expiresAt,
+            Map<String, Object> metadata) {
+        try {
+            BroadcastNotification saved = repository.save(BroadcastNotification.builder()
+                    .category(category)
+                    .title(title)
+                    .message(message)
+                    .priority(priority)
+                    .actionUrl(actionUrl)
+                    .actionText(actionText)
+                    .expiresAt(expiresAt)
+                    .metadataJson(metadata != null ? objectMapper.writeValueAsString(metadata) : null)
+                    .build());
+            invalidateAfterCommit();
+            log.info("Created broadcast {} ({})", saved.getId(), category);
+            return saved;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to persist broadcast notification", e);
+        }
+    }
+
+    @Transactional
+    public void withdraw(UUID id) {
+        receiptRepository.deleteByBroadcastId(id);
+        repository.deleteById(id);
+        invalidateAfterCommit();
+        log.info("Withdrew broadcast {}", id);
+    }
+
+    /** The user's view of the active broadcasts they have not dismissed, newest first. */
+    @Transactional(readOnly = true)
+    public List<AppNotification> listForUser(UUID userId) {
+        List<BroadcastNotification> broadcasts = activeBroadcasts();
+        if (broadcasts.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, BroadcastReceipt> receipts = receiptsFor(userId, broadcasts);
+        return broadcasts.stream()
+                .filter(b -> !isDismissed(receipts.get(b.getId())))
+                .map(b -> toView(b, userId, receipts.get(b.getId())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnread(UUID userId) {
+        List<BroadcastNotification> broadcasts = activeBroadcasts();
+        if (broadcasts.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, BroadcastReceipt> receipts = receiptsFor(userId, broadcasts);
+        return broadcasts.stream().filter(b -> !receipts.containsKey(b.getId())).count();
+    }
+
+    /** Marks a broadcast read for the user; empty if {@code id} is not an active broadcast. */
+    @Transactional
+    public Optional<AppNotification> markRead(UUID id, UUID userId) {
+        return findActive(id).map(b -> toView(b, userId, record(b.getId(), userId, BroadcastReceipt.State.READ)));
+    }
+
+    /** Hides a broadcast from the user; false if {@code id} is not an active broadcast. */
+    @Transactional
+    public boolean dismiss(UUID id, UUID userId) {
+        return findActive(id)
+                .map(b -> record(b.getId(), userId, BroadcastReceipt.State.DISMISSED))
+                .isPresent();
+    }
+
+    private BroadcastReceipt record(UUID broadcastId, UUID userId, BroadcastReceipt.State state) {
+        receiptRepository.upsert(UUID.randomUUID(), broadcastId, userId, state.name());
+        return receiptRepository
+                .findByBroadcastIdAndUserId(broadcastId, userId)
+                .orElseThrow(
+                        () -> new IllegalStateException("Receipt missing after upsert for broadcast " + broadcastId));
+    }
+
+    private Optional<BroadcastNotification> findActive(UUID id) {
+        return activeBroadcasts().stream().filter(b -> b.getId().equals(id)).findFirst();
+    }
+
+    private List<BroadcastNotification> activeBroadcasts() {
+        final Instant now = Instant.now();
+        return active.get(ACTIVE).stream()
+                .filter(b -> b.getExpiresAt() == null || b.getExpiresAt().isAfter(now))
+                .toList();
+    }
+
+    private Map<UUID, BroadcastReceipt> receiptsFor(UUID userId, List<BroadcastNotification> broadcasts) {
+        return receiptRepository
+                .findByUserIdAndBroadcastIdIn(
+                        userId,
+                        broadcasts.stream().map(BroadcastNotification::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(BroadcastReceipt::getBroadcastId, Function.identity()));
+    }
+
+    private static boolean isDismissed(BroadcastReceipt receipt) {
+        return receipt != null && receipt.getState() == BroadcastReceipt.State.DISMISSED;
+    }
+
+    /** Presents a broadcast in the shape of a per-user app notification; never persisted. */
+    private static AppNotification toView(BroadcastNotification b, UUID userId, BroadcastReceipt receipt) {
+        boolean read = receipt != null;
+        return AppNotification.builder()
+                .id(b.getId())
+                .userId(userId)
+                .type(AppNotification.NotificationKind.SYSTEM)
+                .category(b.getCategory())
+                .title(b.getTitle())
+                .message(b.getMessage())
+                .priority(b.getPriority())
+                .status(read ? AppNotification.NotificationStatus.READ : AppNotification.NotificationStatus.UNREAD)
+                .actionUrl(b.getActionUrl())
+                .actionText(b.getActionText())
+                .metadataJson(b.getMetadataJson())
+                .createdAt(b.getCreatedAt())
+                .updatedAt(read ? receipt.getUpdatedAt() : b.getCreatedAt())
+                .readAt(read ? receipt.getUpdatedAt() : null)
+                .build();
+    }
+
+    private void invalidateAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                active.invalidate(ACTIVE);
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package org.solace.scholar_ai.notification_service.service;
+
+/** Stages of a single notification delivery, in the order they usually happen. */
+public enum DeliveryStage {
+    /**
+     * From the producer's request timestamp, or the service's own republish of a scheduled or
+     * replayed request, until the listener picked the message up. Not recorded for redeliveries.
+     */
+    QUEUE_WAIT,
+    /** Type resolution, preference and scheduling checks before any channel work. */
+    DISPATCH,
+    TEMPLATE_RENDER,
+    MIME_BUILD,
+    SMTP_CONNECT,
+    /** SMTP time excluding connection setup: envelope, data and server acknowledgement. */
+    SMTP_DATA,
+    DB_WRITE
+}
@@ -0,0 +1,71 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/** Stage timings for one message, collected on the listener thread by {@link DeliveryTracer}. */
+public final class DeliveryTrace {
+
+    private static final DeliveryStage[] STAGES = DeliveryStage.values();
+
+    private final String notificationType;
+    private final UUID userId;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final long[] stageNanos = new long[STAGES.length];
+    private long unattributedConnectNanos;
+    private long totalNanos;
+
+    DeliveryTrace(String notificationType, UUID userId) {
+        this.notificationType = notificationType;
+        this.userId = userId;
+    }
+
+    void add(DeliveryStage stage, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        // SMTP connect happens inside the send call, so it is recorded first and then taken out of
+        // the send time to leave the data phase on its own.
+        if (stage == DeliveryStage.SMTP_CONNECT) {
+            unattributedConnectNanos += nanos;
+        } else if (stage == DeliveryStage.SMTP_DATA) {
+            nanos = Math.max(0, nanos - unattributedConnectNanos);
+            unattributedConnectNanos = 0;
+        }
+        stageNanos[stage.ordinal()] += nanos;
+    }
+
+    void finish() {
+        totalNanos = System.nanoTime() - startNanos + stageNanos[DeliveryStage.QUEUE_WAIT.ordinal()];
+    }
+
+    long stageNanos(DeliveryStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    long totalNanos() {
+        return totalNanos;
+    }
+
+    Instant startedAt() {
+        return startedAt;
+    }
+
+    /** A detached, JSON-friendly copy for the slowest-messages list. */
+    Map<String, Object> toReport() {
+        Map<String, Double> stages = new LinkedHashMap<>();
+        for (DeliveryStage stage : STAGES) {
+            stages.put(stage.name(), stageNanos[stage.ordinal()] / 1_000_000.0);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("notificationType", notificationType);
+        report.put("userId", userId);
+        report.put("startedAt", startedAt.toString());
+        report.put("totalMs", totalNanos / 1_000_000.0);
+        report.put("stagesMs", stages);
+        return report;
+    }
+}
@@ -0,0 +1,174 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-stage delivery latency, kept in process without a tracing backend.
+ *
+ * <p>The listener thread opens a {@link DeliveryTrace} per message, and code along the delivery path
+ * adds stage timings to it through {@link #record}. Calls are no-ops when no trace is open. When the
+ * message completes, each stage goes into an HdrHistogram {@link Recorder}. Recorders are rolled
+ * into fixed intervals, and the last intervals are merged into 1, 5 and 15 minute windows on read.
+ * The slowest messages of the retention period are kept with their full breakdown. Served at
+ * {@code /actuator/deliverylatency}.
+ */
+@Component
+public class DeliveryTracer {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final String TOTAL = "TOTAL";
+    private static final int[] WINDOW_MINUTES = {1, 5, 15};
+
+    private final ThreadLocal<DeliveryTrace> current = new ThreadLocal<>();
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Deque<Map<String, Histogram>> intervals = new ArrayDeque<>();
+    private final PriorityQueue<DeliveryTrace> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(DeliveryTrace::totalNanos));
+    private final Map<String, Histogram> recycled = new LinkedHashMap<>();
+
+    private final long intervalMs;
+    private final int retainedIntervals;
+    private final int slowestCapacity;
+
+    public DeliveryTracer(
+            @Value("${notification.tracing.interval-ms:30000}") long intervalMs,
+            @Value("${notification.tracing.slowest-capacity:50}") int slowestCapacity) {
+        this.intervalMs = intervalMs;
+        this.retainedIntervals =
+                (int) Math.max(1, TimeUnit.MINUTES.toMillis(WINDOW_MINUTES[WINDOW_MINUTES.length - 1]) / intervalMs);
+        this.slowestCapacity = slowestCapacity;
+        for (DeliveryStage stage : DeliveryStage.values()) {
+            recorders.put(stage.name(), new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+        }
+        recorders.put(TOTAL, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+    }
+
+    /**
+     * Opens a trace for the message handled on this thread, with the queue wait since {@code
+     * enqueuedAt}; none is recorded when it is null.
+     */
+    public void begin(String notificationType, UUID userId, Instant enqueuedAt) {
+        DeliveryTrace trace = new DeliveryTrace(notificationType, userId);
+        if (enqueuedAt != null) {
+            trace.add(
+                    DeliveryStage.QUEUE_WAIT,
+                    Duration.between(enqueuedAt, trace.startedAt()).toNanos());
+        }
+        current.set(trace);
+    }
+
+    /** Adds the time since {@code startNanos} to {@code stage} of this thread's trace, if any. */
+    public void record(DeliveryStage stage, long startNanos) {
+        DeliveryTrace trace = current.get();
+        if (trace != null) {
+            trace.add(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Closes this thread's trace and records it. */
+    public void finish() {
+        DeliveryTrace trace = current.get();
+        if (trace == null) {
+            return;
+        }
+        current.remove();
+        trace.finish();
+        for (DeliveryStage stage : DeliveryStage.values()) {
+            long nanos = trace.stageNanos(stage);
+            if (nanos > 0) {
+                recordMicros(recorders.get(stage.name()), nanos);
+            }
+        }
+        recordMicros(recorders.get(TOTAL), trace.totalNanos());
+        synchronized (slowest) {
+            if (slowest.size() < slowestCapacity) {
+                slowest.add(trace);
+            } else if (trace.totalNanos() > slowest.peek().totalNanos()) {
+                slowest.poll();
+                slowest.add(trace);
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.tracing.interval-ms:30000}",
+            fixedRateString = "${notification.tracing.interval-ms:30000}")
+    public void rollInterval() {
+        Map<String, Histogram> interval = new LinkedHashMap<>();
+        synchronized (intervals) {
+            recorders.forEach(
+                    (name, recorder) -> interval.put(name, recorder.getIntervalHistogram(recycled.remove(name))));
+            intervals.addFirst(interval);
+            while (intervals.size() > retainedIntervals) {
+                // Reuse the evicted interval's histograms for the next swap to avoid reallocating
+                recycled.putAll(intervals.removeLast());
+            }
+        }
+        Instant cutoff = Instant.now().minusMillis(intervalMs * retainedIntervals);
+        synchronized (slowest) {
+            slowest.removeIf(trace -> trace.startedAt().isBefore(cutoff));
+        }
+    }
+
+    /** Percentiles per stage for each window, and the slowest recent messages, slowest first. */
+    public Map<String, Object> report() {
+        Map<String, Object> windows = new LinkedHashMap<>();
+        synchronized (intervals) {
+            List<Map<String, Histogram>> recent = new ArrayList<>(intervals);
+            for (int minutes : WINDOW_MINUTES) {
+                int count = (int) Math.max(1, TimeUnit.MINUTES.toMillis(minutes) / intervalMs);
+                Map<String, Object> stages = new LinkedHashMap<>();
+                for (String name : recorders.keySet()) {
+                    Histogram merged = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+                    recent.stream().limit(count).forEach(interval -> merged.add(interval.get(name)));
+                    stages.put(name, summarize(merged));
+                }
+                windows.put(minutes + "m", stages);
+            }
+        }
+        List<Map<String, Object>> slow;
+        synchronized (slowest) {
+            slow = slowest.stream()
+                    .sorted(Comparator.comparingLong(DeliveryTrace::totalNanos).reversed())
+                    .map(DeliveryTrace::toReport)
+                    .toList();
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("intervalMs", intervalMs);
+        report.put("windows", windows);
+        report.put("slowest", slow);
+        return report;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    private static void recordMicros(Recorder recorder, long nanos) {
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
@@ -0,0 +1,384 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.EmailCampaignJob;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.repository.EmailCampaignJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sends one template to many recipients. The template is rendered once with the shared data, and
+ * per-recipient fields are patched into the pre-rendered HTML (see {@link PrerenderedTemplate}).
+ * Messages go to SMTP in batches over a single connection. Each batch's outcomes are stored with
+ * one batched insert.
+ *
+ * <p>Campaigns run in the background. A submission is stored as a queued job together with its
+ * recipients and returns at once. A retry with the same idempotency key gets the existing job instead
+ * of sending the campaign again. Without a key, an identical request only counts as a retry within
+ * the dedup window, so a recurring campaign such as a weekly digest is still sent each time. Each
+ * instance polls for queued jobs and runs one at a time, claimed with {@code FOR UPDATE SKIP
+ * LOCKED}. Progress is written after every SMTP batch and doubles as a heartbeat. A running job
+ * whose instance stops heart-beating is requeued and resumes after its last recorded batch, so only
+ * the batch in flight when an instance died can be sent twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailCampaignService {
+
+    public static final String CAMPAIGN_TYPE = "EMAIL_CAMPAIGN";
+
+    /** Recipient fields every template may print; filled from the recipient unless overridden. */
+    private static final String USER_NAME = "userName";
+
+    private static final String USER_EMAIL = "userEmail";
+
+    private static final Pattern TEMPLATE_NAME = Pattern.compile("[a-z0-9-]+");
+
+    private static final TypeReference<List<Failure>> FAILURE_LIST = new TypeReference<>() {};
+
+    private final EmailService emailService;
+    private final NotificationPersistenceService persistenceService;
+    private final NotificationDrainCoordinator drainCoordinator;
+    private final MeterRegistry meterRegistry;
+    private final PayloadStore payloadStore;
+    private final EmailCampaignJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Sorted map keys, so equal requests serialize, and hash, the same
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "email-campaign");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${notification.campaign.smtp-batch-size:50}")
+    private int smtpBatchSize;
+
+    @Value("${notification.campaign.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${notification.campaign.dedup-window-ms:600000}")
+    private long dedupWindowMs;
+
+    @Value("${notification.campaign.max-recorded-failures:100}")
+    private int maxRecordedFailures;
+
+    public record Recipient(String email, String name, UUID userId, Map<String, String> overrides) {}
+
+    public record Failure(String email, String error) {}
+
+    /** A submitted job; {@code sameRequest} is false when its key was first used for a different request. */
+    public record Submission(EmailCampaignJob job, boolean sameRequest) {}
+
+    /** A job with the first recipients that failed; its {@code failed} count covers all of them. */
+    public record JobView(EmailCampaignJob job, List<Failure> failures) {}
+
+    /** What a job stores and hashes: the whole request. */
+    private record CampaignRequest(
+            String templateName, String subject, Map<String, Object> sharedData, List<Recipient> recipients) {}
+
+    /**
+     * Queues a campaign, or returns the job already queued under {@code idempotencyKey}. Without a
+     * key, an identical request queued within the dedup window is returned instead.
+     */
+    public Submission submit(
+            String idempotencyKey,
+            String templateName,
+            String subject,
+            Map<String, Object> sharedData,
+            List<Recipient> recipients) {
+        if (templateName == null || !TEMPLATE_NAME.matcher(templateName).matches()) {
+            throw new IllegalArgumentException("Invalid template name: " + templateName);
+        }
+        String requestJson = write(
+                new CampaignRequest(templateName, subject, sharedData != null ? sharedData : Map.of(), recipients));
+        String hash = PayloadStore.sha256(requestJson.getBytes(StandardCharsets.UTF_8));
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        EmailCampaignJob job = transactionTemplate.execute(status -> {
+            if (!keyed) {
+                jobRepository.lockRequestHash(hash);
+                Optional<EmailCampaignJob> recent =
+                        jobRepository.findFirstByRequestHashAndCreatedAtAfterOrderByCreatedAtDesc(
+                                hash, Instant.now().minusMillis(dedupWindowMs));
+                if (recent.isPresent()) {
+                    return recent.get();
+                }
+            }
+            UUID id = UUID.randomUUID();
+            String key = keyed ? idempotencyKey : id.toString();
+            int inserted = jobRepository.insertIfAbsent(EmailCampaignJob.builder()
+                    .id(id)
+                    .idempotencyKey(key)
+                    .requestHash(hash)
+                    .templateName(templateName)
+                    .subject(subject)
+                    .requestJson(requestJson)
+                    .total(recipients.size())
+                    .createdAt(Instant.now())
+                    .build());
+            EmailCampaignJob stored = jobRepository.findByIdempotencyKey(key).orElseThrow();
+            if (inserted > 0) {
+                log.info(
+                        "Queued campaign job {}: {} to {} recipients", stored.getId(), templateName, recipients.size());
+            }
+            return stored;
+        });
+        return new Submission(job, hash.equals(job.getRequestHash()));
+    }
+
+    public Optional<JobView> job(UUID id) {
+        return jobRepository.findById(id).map(job -> new JobView(job, failures(job)));
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.campaign.poll-interval-ms:2000}",
+            fixedDelayString = "${notification.campaign.poll-interval-ms:2000}")
+    public void poll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int requeued = jobRepository.requeueStale(
+                    Instant.now().minusMillis(staleAfterMs),
+                    EmailCampaignJob.Status.RUNNING,
+                    EmailCampaignJob.Status.QUEUED);
+            if (requeued > 0) {
+                log.warn("Requeued {} campaign jobs whose instance stopped reporting progress", requeued);
+            }
+        });
+        if (!drainCoordinator.isDraining() && running.compareAndSet(false, true)) {
+            runner.execute(() -> {
+                try {
+                    claimNext().ifPresent(this::run);
+                } catch (Exception e) {
+                    log.error("Campaign job failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private Optional<EmailCampaignJob> claimNext() {
+        return transactionTemplate.execute(
+                status -> jobRepository.lockNextQueued().map(job -> {
+                    job.setStatus(EmailCampaignJob.Status.RUNNING);
+                    job.setStartedAt(job.getStartedAt() != null ? job.getStartedAt() : Instant.now());
+                    job.setHeartbeatAt(Instant.now());
+                    return jobRepository.save(job);
+                }));
+    }
+
+    private void run(EmailCampaignJob job) {
+        CampaignRequest request = read(job);
+        List<Recipient> recipients = request.recipients();
+        Map<String, Object> shared = request.sharedData();
+        String templateName = job.getTemplateName();
+        String subject = job.getSubject();
+        List<Failure> recorded = new ArrayList<>(failures(job));
+
+        PrerenderedTemplate template;
+        try {
+            template = compile(templateName, shared, recipients);
+        } catch (Exception e) {
+            // Retrying would fail the same way; fail what is left so the job finishes
+            log.error("Campaign job {} could not render {}", job.getId(), templateName, e);
+            List<Recipient> left = recipients.subList(job.getProcessed(), recipients.size());
+            persistenceService.saveAll(left.stream()
+                    .map(r -> record(r, subject, templateName, e.getMessage()))
+                    .toList());
+            recordProgress(
+                    job,
+                    recipients.size(),
+                    0,
+                    left.stream()
+                            .map(r -> new Failure(r.email(), e.getMessage()))
+                            .toList(),
+                    recorded);
+            complete(job);
+            return;
+        }
+        log.info(
+                "Running campaign job {}: {} to {} recipients from {}, rendered once with slots {}",
+                job.getId(),
+                templateName,
+                recipients.size(),
+                job.getProcessed(),
+                template.slotKeys());
+
+        for (int from = job.getProcessed(); from < recipients.size(); from += smtpBatchSize) {
+            if (drainCoordinator.isDraining()) {
+                // Left RUNNING; the stale sweep requeues it once this instance is gone
+                log.info("Pausing campaign job {} for shutdown after {} recipients", job.getId(), from);
+                return;
+            }
+            int to = Math.min(recipients.size(), from + smtpBatchSize);
+            List<Failure> failures = new ArrayList<>();
+            int sent = sendBatch(recipients.subList(from, to), template, shared, subject, templateName, failures);
+            recordProgress(job, to, sent, failures, recorded);
+        }
+        complete(job);
+    }
+
+    private PrerenderedTemplate compile(String templateName, Map<String, Object> shared, List<Recipient> recipients) {
+        TreeSet<String> keySet = new TreeSet<>(List.of(USER_NAME, USER_EMAIL));
+        recipients.forEach(r -> {
+            if (r.overrides() != null) {
+                keySet.addAll(r.overrides().keySet());
+            }
+        });
+        List<String> keys = List.copyOf(keySet);
+        Map<String, Object> renderData = new HashMap<>(shared);
+        renderData.putAll(PrerenderedTemplate.placeholders(keys));
+        return PrerenderedTemplate.compile(emailService.renderTemplate(templateName, renderData), keys);
+    }
+
+    /**
+     * Stores a batch's counts. Only the first failures are kept on the job, so its JSON is not
+     * rewritten in full after every batch; {@code recorded} holds those kept so far.
+     */
+    private void recordProgress(
+            EmailCampaignJob job, int processed, int sent, List<Failure> failures, List<Failure> recorded) {
+        int room = maxRecordedFailures - recorded.size();
+        String failuresJson = null;
+        if (room > 0 && !failures.isEmpty()) {
+            recorded.addAll(failures.subList(0, Math.min(room, failures.size())));
+            failuresJson = write(recorded);
+        }
+        String changed = failuresJson;
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.addProgress(job.getId(), processed, sent, failures.size(), changed, Instant.now()));
+        meterRegistry.counter("notification.campaign.emails", "outcome", "sent").increment(sent);
+        meterRegistry
+                .counter("notification.campaign.emails", "outcome", "failed")
+                .increment(failures.size());
+    }
+
+    private void complete(EmailCampaignJob job) {
+        transactionTemplate.executeWithoutResult(
+                status -> jobRepository.complete(job.getId(), EmailCampaignJob.Status.COMPLETED, Instant.now()));
+        log.info("Campaign job {} finished", job.getId());
+    }
+
+    private int sendBatch(
+            List<Recipient> batch,
+            PrerenderedTemplate template,
+            Map<String, Object> shared,
+            String subject,
+            String templateName,
+            List<Failure> failures) {
+        Map<MimeMessage, Recipient> messages = new IdentityHashMap<>();
+        List<NotificationRecord> records = new ArrayList<>(batch.size());
+        for (Recipient recipient : batch) {
+            try {
+                messages.put(
+                        emailService.buildHtmlMessage(
+                                recipient.email(), subject, template.render(valuesFor(recipient, shared))),
+                        recipient);
+            } catch (Exception e) {
+                failures.add(new Failure(recipient.email(), e.getMessage()));
+                records.add(record(recipient, subject, templateName, e.getMessage()));
+            }
+        }
+
+        Map<MimeMessage, Exception> failed = emailService.sendBatch(new ArrayList<>(messages.keySet()));
+        int sent = 0;
+        for (Map.Entry<MimeMessage, Recipient> entry : messages.entrySet()) {
+            Exception error = failed.get(entry.getKey());
+            Recipient recipient = entry.getValue();
+            if (error == null) {
+                sent++;
+                records.add(record(recipient, subject, templateName, null));
+            } else {
+                failures.add(new Failure(recipient.email(), error.getMessage()));
+                records.add(record(recipient, subject, templateName, error.getMessage()));
+            }
+        }
+        persistenceService.saveAll(records);
+        return sent;
+    }
+
+    private CampaignRequest read(EmailCampaignJob job) {
+        try {
+            return objectMapper.readValue(job.getRequestJson(), CampaignRequest.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Corrupt request on campaign job " + job.getId(), e);
+        }
+    }
+
+    private List<Failure> failures(EmailCampaignJob job) {
+        if (job.getFailuresJson() == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(job.getFailuresJson(), FAILURE_LIST);
+        } catch (Exception e) {
+            throw new IllegalStateException("Corrupt failures on campaign job " + job.getId(), e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize campaign", e);
+        }
+    }
+
+    private static Map<String, Object> valuesFor(Recipient recipient, Map<String, Object> shared) {
+        Map<String, Object> values = new HashMap<>(shared);
+        values.put(USER_NAME, recipient.name() != null ? recipient.name() : shared.get(USER_NAME));
+        values.put(USER_EMAIL, recipient.email());
+        if (recipient.overrides() != null) {
+            values.putAll(recipient.overrides());
+        }
+        return values;
+    }
+
+    private NotificationRecord record(Recipient recipient, String subject, String templateName, String error) {
+        final Instant now = Instant.now();
+        Map<String, String> overrides = recipient.overrides();
+        return NotificationRecord.builder()
+                .userId(recipient.userId())
+                .recipientEmail(recipient.email())
+                .recipientName(recipient.name())
+                .type(CAMPAIGN_TYPE)
+                .subject(subject)
+                .templateName(templateName)
+                .templateDataHash(overrides != null && !overrides.isEmpty() ? payloadStore.put(overrides) : null)
+                .status(error == null ? "SENT" : "FAILED")
+                .errorMessage(error)
+                .createdAt(now)
+                .sentAt(error == null ? now : null)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
@@ -1,12 +1,19 @@
 package org.solace.scholar_ai.notification_service.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.exception.DeliveryInterruptedException;
 import org.solace.scholar_ai.notification_service.exception.EmailSendException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -18,8 +25,14 @@ import org.thymeleaf.context.Context;
 @Slf4j
 public class EmailService {
 
+	/** Per-attempt SMTP hand-off latency; also read by {@link ListenerAutoscaler}. */
+	public static final String SMTP_SEND_TIMER = "notification.smtp.send";
+
 	private final JavaMailSender mailSender;
 	private final TemplateEngine templateEngine;
+	private final MeterRegistry meterRegistry;
+	private final NotificationDrainCoordinator drainCoordinator;
+	private final DeliveryTracer deliveryTracer;
 
 	@Value("${spring.mail.username:scholarai.official@gmail.com}")
 	private String fromEmail;
@@ -38,17 +51,24 @@ public class EmailService {
 		log.info("Sending welcome email to: {}", toEmail);
 
 		try {
+			long mimeStart = System.nanoTime();
 			MimeMessage message = mailSender.createMimeMessage();
 			MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
 			helper.setFrom(fromEmail);
 			helper.setTo(toEmail);
 			helper.setSubject("Welcome to " + appName + "!");
+			deliveryTracer.record(DeliveryStage.MIME_BUILD, mimeStart);
 
+			long renderStart = System.nanoTime();
 			Context context = new Context();
 			context.setVariables(templateData);
 			String htmlContent = templateEngine.process("welcome-email", context);
+			deliveryTracer.record(DeliveryStage.TEMPLATE_RENDER, renderStart);
+
+			mimeStart = System.nanoTime();
 			helper.setText(htmlContent, true);
+			deliveryTracer.record(DeliveryStage.MIME_BUILD, mimeStart);
 
 			sendWithRetry(message, toEmail);
 			log.info("✓ Welcome email sent to: {}", toEmail);
@@ -82,24 +102,32 @@ public class EmailService {
 		sendTemplatedEmail(toEmail, "Project Deleted - " + appName, "project-deleted", templateData);
 	}
 
-	private void sendTemplatedEmail(String toEmail, String subject, String templateName, Map<String, Object> templateData) {
+	/** Renders {@code templateName} and sends it; the consumer drives this from {@link NotificationTypeRegistry}. */
+	public void sendTemplatedEmail(String toEmail, String subject, String templateName, Map<String, Object> templateData) {
 		validateEmailConfig();
 		if (toEmail == null || toEmail.isBlank()) {
 			throw new EmailSendException("Recipient email must not be empty");
 		}
 
 		try {
+			long mimeStart = System.nanoTime();
 			MimeMessage message = mailSender.createMimeMessage();
 			MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
 			helper.setFrom(fromEmail);
 			helper.setTo(toEmail);
 			helper.setSubject(subject);
+			deliveryTracer.record(DeliveryStage.MIME_BUILD, mimeStart);
 
+			long renderStart = System.nanoTime();
 			Context context = new Context();
 			context.setVariables(templateData);
 			String htmlContent = templateEngine.process(templateName, context);
+			deliveryTracer.record(DeliveryStage.TEMPLATE_RENDER, renderStart);
+
+			mimeStart = System.nanoTime();
 			helper.setText(htmlContent, true);
+			deliveryTracer.record(DeliveryStage.MIME_BUILD, mimeStart);
 
 			sendWithRetry(message, toEmail);
 			log.info("✓ {} sent to: {}", subject, toEmail);
@@ -109,6 +137,60 @@ public class EmailService {
 		}
 	}
 	
+	/** Renders a template without sending; used to pre-render campaign bodies once. */
+	public String renderTemplate(String templateName, Map<String, Object> templateData) {
+		Context context = new Context();
+		context.setVariables(templateData);
+		return templateEngine.process(templateName, context);
+	}
+
+	public MimeMessage buildHtmlMessage(String toEmail, String subject, String htmlContent) throws MessagingException {
+		validateEmailConfig();
+		if (toEmail == null || toEmail.isBlank()) {
+			throw new EmailSendException("Recipient email must not be empty");
+		}
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+		helper.setFrom(fromEmail);
+		helper.setTo(toEmail);
+		helper.setSubject(subject);
+		helper.setText(htmlContent, true);
+		return message;
+	}
+
+	/**
+	 * Sends messages over one SMTP connection instead of one connection per message. Returns the
+	 * messages the server did not accept, mapped to their cause; empty when all were accepted.
+	 * Failures are not retried here, the caller decides what to do with them.
+	 */
+	public Map<MimeMessage, Exception> sendBatch(List<MimeMessage> messages) {
+		if (messages.isEmpty()) {
+			return Map.of();
+		}
+		long start = System.nanoTime();
+		try {
+			mailSender.send(messages.toArray(MimeMessage[]::new));
+			recordSmtpLatency(start, "success");
+			return Map.of();
+		} catch (MailSendException e) {
+			recordSmtpLatency(start, "failure");
+			Map<MimeMessage, Exception> failed = new LinkedHashMap<>();
+			e.getFailedMessages().forEach((message, cause) -> failed.put((MimeMessage) message, cause));
+			if (failed.isEmpty()) {
+				// Connection-level failure: nothing in the batch was sent
+				messages.forEach(message -> failed.put(message, e));
+			}
+			log.warn("SMTP batch of {} had {} failures", messages.size(), failed.size());
+			return failed;
+		} catch (Exception e) {
+			recordSmtpLatency(start, "failure");
+			Map<MimeMessage, Exception> failed = new LinkedHashMap<>();
+			messages.forEach(message -> failed.put(message, e));
+			log.warn("SMTP batch of {} failed: {}", messages.size(), e.getMessage());
+			return failed;
+		}
+	}
+
 	private void validateEmailConfig() {
 		if (fromEmail == null || fromEmail.isEmpty()) {
 			throw new EmailSendException("Mail credentials not configured");
@@ -120,22 +202,27 @@ public class EmailService {
 		Exception lastException = null;
 		
 		while (attempts < maxRetryAttempts) {
+			long start = System.nanoTime();
 			try {
 				mailSender.send(message);
+				recordSmtpLatency(start, "success");
 				if (attempts > 0) {
 					log.info("Email sent successfully on retry {} to: {}", attempts, recipient);
 				}
 				return;
 			} catch (Exception e) {
+				recordSmtpLatency(start, "failure");
 				attempts++;
 				lastException = e;
 				if (attempts < maxRetryAttempts) {
 					log.warn("Email send attempt {} failed for {}, retrying...", attempts, recipient);
 					try {
-						Thread.sleep(1000 * attempts);
+						if (drainCoordinator.awaitRetryBackoff(1000L * attempts)) {
+							throw new DeliveryInterruptedException("Shutdown started during retry backoff for " + recipient);
+						}
 					} catch (InterruptedException ie) {
 						Thread.currentThread().interrupt();
-						throw new EmailSendException("Interrupted during retry", ie);
+						throw new DeliveryInterruptedException("Interrupted during retry", ie);
 					}
 				}
 			}
@@ -144,4 +231,12 @@ public class EmailService {
 		log.error("Failed to send email to {} after {} attempts", recipient, maxRetryAttempts);
 		throw new EmailSendException("Failed to send email after " + maxRetryAttempts + " attempts", lastException);
 	}
+
+	private void recordSmtpLatency(long startNanos, String outcome) {
+		deliveryTracer.record(DeliveryStage.SMTP_DATA, startNanos);
+		Timer.builder(SMTP_SEND_TIMER)
+				.tag("outcome", outcome)
+				.register(meterRegistry)
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
 }
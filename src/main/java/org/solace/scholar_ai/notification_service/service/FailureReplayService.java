@@ -0,0 +1,357 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.model.ReplayJob;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.solace.scholar_ai.notification_service.repository.ReplayJobRepository;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Inspects failed deliveries and resends them in rate-limited replay jobs.
+ *
+ * <p>A job stores its selection, which is either explicit record ids or a type / error class / time
+ * range filter, and is queued in the database. Each instance polls for queued jobs and runs one at a
+ * time, claimed with {@code FOR UPDATE SKIP LOCKED}. Records are resent one at a time at the
+ * job's rate: each still-failed row is locked, republished through the normal pipeline and marked
+ * REPLAYED in a short transaction of its own, and the rate limiter is waited on outside it, so a
+ * job never holds a connection while it waits. Overlapping jobs never resend the same record
+ * concurrently, but a commit that fails after the publish leaves the record FAILED for a later
+ * run, so delivery is at-least-once. Progress is written after every chunk and doubles as a
+ * heartbeat. A running job whose instance stops heart-beating is requeued, and it resumes where it
+ * stopped because replayed rows no longer match. The deliveries a replay produces carry the job id,
+ * which is how outcomes are counted per job.
+ */
+@Service
+@Slf4j
+public class FailureReplayService {
+
+    private static final Instant MAX_INSTANT = Instant.parse("9999-12-31T23:59:59Z");
+    private static final TypeReference<List<UUID>> ID_LIST = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> TEMPLATE_DATA = new TypeReference<>() {};
+
+    private final NotificationRecordRepository recordRepository;
+    private final ReplayJobRepository jobRepository;
+    private final PayloadStore payloadStore;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationDrainCoordinator drainCoordinator;
+    private final NotificationStatsService stats;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter replayed;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "failure-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${rabbitmq.notification.exchange.name}")
+    private String exchangeName;
+
+    @Value("${notification.replay.routing-key:notification.replay}")
+    private String routingKey;
+
+    @Value("${notification.replay.default-rate-per-second:5}")
+    private double defaultRatePerSecond;
+
+    @Value("${notification.replay.max-rate-per-second:50}")
+    private double maxRatePerSecond;
+
+    @Value("${notification.replay.max-records-per-job:10000}")
+    private int maxRecordsPerJob;
+
+    @Value("${notification.replay.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    public FailureReplayService(
+            NotificationRecordRepository recordRepository,
+            ReplayJobRepository jobRepository,
+            PayloadStore payloadStore,
+            RabbitTemplate rabbitTemplate,
+            TransactionTemplate transactionTemplate,
+            NotificationDrainCoordinator drainCoordinator,
+            NotificationStatsService stats,
+            MeterRegistry meterRegistry) {
+        this.recordRepository = recordRepository;
+        this.jobRepository = jobRepository;
+        this.payloadStore = payloadStore;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.drainCoordinator = drainCoordinator;
+        this.stats = stats;
+        this.replayed = Counter.builder("notification.replay.published")
+                .description("Failed notifications republished by replay jobs")
+                .register(meterRegistry);
+    }
+
+    /** Which failures a replay job resends: explicit ids, or everything matching the filters. */
+    public record Selection(List<UUID> ids, String type, String errorClass, Instant from, Instant to) {}
+
+    /** A job with the delivery outcomes of its resends so far, by record status. */
+    public record JobView(ReplayJob job, Map<String, Long> outcomes) {}
+
+    public List<NotificationRecordRepository.FailureGroup> groups(Instant from, Instant to) {
+        return recordRepository.groupFailures(lower(from), upper(to));
+    }
+
+    public List<NotificationRecord> failures(
+            String type, String errorClass, Instant from, Instant to, int page, int size) {
+        List<NotificationRecord> records =
+                recordRepository.findFailures(type, errorClass, lower(from), upper(to), PageRequest.of(page, size));
+        Map<String, String> payloads = payloadStore.getAll(records.stream()
+                .map(NotificationRecord::getTemplateDataHash)
+                .filter(Objects::nonNull)
+                .toList());
+        records.forEach(r -> r.setTemplateDataJson(payloads.get(r.getTemplateDataHash())));
+        return records;
+    }
+
+    public ReplayJob submit(Selection selection, Double ratePerSecond) {
+        boolean explicit = selection.ids() != null && !selection.ids().isEmpty();
+        if (!explicit && selection.type() == null && selection.errorClass() == null) {
+            throw new IllegalArgumentException("Select records by ids, type or error class");
+        }
+        if (explicit && selection.ids().size() > maxRecordsPerJob) {
+            throw new IllegalArgumentException("At most " + maxRecordsPerJob + " ids per replay job");
+        }
+        double rate = ratePerSecond != null ? ratePerSecond : defaultRatePerSecond;
+        if (!(rate > 0 && rate <= maxRatePerSecond)) {
+            throw new IllegalArgumentException("Rate must be between 0 and " + maxRatePerSecond + " per second");
+        }
+        try {
+            ReplayJob job = jobRepository.save(ReplayJob.builder()
+                    .notificationType(explicit ? null : selection.type())
+                    .errorClass(explicit ? null : selection.errorClass())
+                    .from(explicit ? null : selection.from())
+                    .to(explicit ? null : selection.to())
+                    .recordIdsJson(explicit ? objectMapper.writeValueAsString(selection.ids()) : null)
+                    .ratePerSecond(rate)
+                    .build());
+            log.info("Queued replay job {} at {}/s", job.getId(), rate);
+            return job;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to queue replay job", e);
+        }
+    }
+
+    public List<ReplayJob> jobs(int limit) {
+        return jobRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, limit));
+    }
+
+    public Optional<JobView> job(UUID id) {
+        return jobRepository.findById(id).map(job -> {
+            Map<String, Long> outcomes = new LinkedHashMap<>();
+            recordRepository.countByReplayJob(id).forEach(c -> outcomes.put(c.getStatus(), c.getCount()));
+            return new JobView(job, outcomes);
+        });
+    }
+
+    /** Cancels a queued or running job; a running one stops after its current chunk. */
+    public boolean cancel(UUID id) {
+        Integer updated = transactionTemplate.execute(status -> jobRepository.transition(
+                id,
+                List.of(ReplayJob.Status.QUEUED, ReplayJob.Status.RUNNING),
+                ReplayJob.Status.CANCELLED,
+                Instant.now()));
+        return updated != null && updated > 0;
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.replay.poll-interval-ms:5000}",
+            fixedDelayString = "${notification.replay.poll-interval-ms:5000}")
+    public void poll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int requeued = jobRepository.requeueStale(
+                    Instant.now().minusMillis(staleAfterMs), ReplayJob.Status.RUNNING, ReplayJob.Status.QUEUED);
+            if (requeued > 0) {
+                log.warn("Requeued {} replay jobs whose instance stopped reporting progress", requeued);
+            }
+        });
+        if (!drainCoordinator.isDraining() && running.compareAndSet(false, true)) {
+            runner.execute(() -> {
+                try {
+                    claimNext().ifPresent(this::run);
+                } catch (Exception e) {
+                    log.error("Replay job failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private Optional<ReplayJob> claimNext() {
+        return transactionTemplate.execute(
+                status -> jobRepository.lockNextQueued().map(job -> {
+                    job.setStatus(ReplayJob.Status.RUNNING);
+                    job.setStartedAt(job.getStartedAt() != null ? job.getStartedAt() : Instant.now());
+                    job.setHeartbeatAt(Instant.now());
+                    int remaining = selectIds(job).size();
+                    // A filter only matches what is still failed, so a resumed job adds what it already did
+                    job.setTotal(
+                            job.getRecordIdsJson() != null
+                                    ? remaining
+                                    : job.getPublished() + job.getSkipped() + job.getPublishFailed() + remaining);
+                    return jobRepository.save(job);
+                }));
+    }
+
+    private void run(ReplayJob job) {
+        List<UUID> ids = selectIds(job);
+        TokenBucket bucket = new TokenBucket(job.getRatePerSecond(), 1);
+        // About a second's worth per chunk, so progress and the heartbeat stay current
+        int chunkSize = (int) Math.max(1, Math.min(100, Math.ceil(job.getRatePerSecond())));
+        log.info("Running replay job {}: {} records at {}/s", job.getId(), ids.size(), job.getRatePerSecond());
+
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            if (drainCoordinator.isDraining()) {
+                // Left RUNNING; the stale sweep requeues it once this instance is gone
+                log.info("Pausing replay job {} for shutdown", job.getId());
+                return;
+            }
+            ReplayJob.Status current = jobRepository
+                    .findById(job.getId())
+                    .map(ReplayJob::getStatus)
+                    .orElse(ReplayJob.Status.CANCELLED);
+            if (current != ReplayJob.Status.RUNNING) {
+                log.info("Replay job {} stopped: {}", job.getId(), current);
+                return;
+            }
+            List<UUID> chunk = ids.subList(i, Math.min(ids.size(), i + chunkSize));
+            if (!replayChunk(job, chunk, bucket)) {
+                return;
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> jobRepository.transition(
+                job.getId(), List.of(ReplayJob.Status.RUNNING), ReplayJob.Status.COMPLETED, Instant.now()));
+        log.info("Replay job {} completed", job.getId());
+    }
+
+    /** What happened to one record; {@code error} is set when publishing failed. */
+    private record Outcome(boolean sent, boolean skipped, String error) {}
+
+    /**
+     * Resends one chunk and records its progress; returns false if the thread was interrupted. Tokens
+     * are taken before each record's transaction, so no connection or row lock is held while waiting.
+     */
+    private boolean replayChunk(ReplayJob job, List<UUID> chunk, TokenBucket bucket) {
+        int sent = 0;
+        int skipped = 0;
+        int failed = 0;
+        String lastError = null;
+        boolean interrupted = false;
+        for (UUID id : chunk) {
+            try {
+                bucket.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                break;
+            }
+            Outcome outcome = transactionTemplate.execute(status -> replayOne(job, id));
+            if (outcome.sent()) {
+                sent++;
+            } else if (outcome.skipped()) {
+                skipped++;
+            } else {
+                failed++;
+                lastError = outcome.error();
+            }
+        }
+        int sentCount = sent;
+        int skippedCount = skipped;
+        int failedCount = failed;
+        String error = lastError;
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.addProgress(job.getId(), sentCount, skippedCount, failedCount, error, Instant.now()));
+        replayed.increment(sent);
+        return !interrupted;
+    }
+
+    /**
+     * Locks the record if it is still failed, republishes it and marks it REPLAYED. The publish is not
+     * part of the transaction: if the commit fails afterwards the record stays FAILED and a later run
+     * sends it again, so replay is at-least-once.
+     */
+    private Outcome replayOne(ReplayJob job, UUID id) {
+        List<NotificationRecord> locked = recordRepository.lockFailed(List.of(id));
+        if (locked.isEmpty()) {
+            return new Outcome(false, true, null);
+        }
+        NotificationRecord record = locked.get(0);
+        try {
+            rabbitTemplate.convertAndSend(exchangeName, routingKey, toRequest(record, job.getId()));
+        } catch (Exception e) {
+            log.warn("Failed to replay notification {}: {}", record.getId(), e.getMessage());
+            return new Outcome(false, false, record.getId() + ": " + e.getMessage());
+        }
+        recordRepository.markReplayed(List.of(record.getId()));
+        stats.deliveriesChangedStatus(locked, "FAILED", "REPLAYED");
+        return new Outcome(true, false, null);
+    }
+
+    private NotificationRequest toRequest(NotificationRecord record, UUID jobId) throws Exception {
+        String templateData = payloadStore.get(record.getTemplateDataHash());
+        return NotificationRequest.builder()
+                .notificationType(record.getType())
+                .recipientEmail(record.getRecipientEmail())
+                .recipientName(record.getRecipientName())
+                .userId(record.getUserId())
+                .templateData(templateData != null ? objectMapper.readValue(templateData, TEMPLATE_DATA) : null)
+                .timestamp(Instant.now())
+                .enqueuedAt(Instant.now())
+                .replayJobId(jobId)
+                .build();
+    }
+
+    private List<UUID> selectIds(ReplayJob job) {
+        if (job.getRecordIdsJson() != null) {
+            try {
+                return objectMapper.readValue(job.getRecordIdsJson(), ID_LIST);
+            } catch (Exception e) {
+                throw new IllegalStateException("Corrupt id list on replay job " + job.getId(), e);
+            }
+        }
+        return recordRepository.findFailedIds(
+                job.getNotificationType(),
+                job.getErrorClass(),
+                lower(job.getFrom()),
+                upper(job.getTo()),
+                PageRequest.of(0, maxRecordsPerJob));
+    }
+
+    private static Instant lower(Instant from) {
+        return from != null ? from : Instant.EPOCH;
+    }
+
+    private static Instant upper(Instant to) {
+        return to != null ? to : MAX_INSTANT;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
@@ -0,0 +1,148 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed timing wheel that hands due items to a callback in batches.
+ *
+ * <p>Inserts are constant time: {@link #schedule} only appends to a lock-free queue, and the
+ * worker thread moves new entries into the bucket for their deadline at the next tick, recording
+ * how many full rotations remain. Each tick then walks a single bucket, so the cost per tick
+ * depends on that bucket's size rather than on the total number of scheduled items. Entries whose
+ * deadline has already passed land in the current bucket and fire on the next tick.
+ */
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private static final class Entry<T> {
+        final T item;
+        final long deadlineNanos;
+        long remainingRounds;
+        Entry<T> next;
+
+        Entry(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Entry<T>[] buckets;
+    private final Queue<Entry<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpired;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread worker;
+
+    private volatile boolean running;
+    private long startNanos;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(
+            String name, long tickDuration, TimeUnit unit, int wheelSize, Consumer<List<T>> onExpired) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int normalized = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.buckets = (Entry<T>[]) new Entry[Math.max(1, normalized)];
+        this.mask = buckets.length - 1;
+        this.onExpired = onExpired;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        running = true;
+        worker.start();
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /** Schedules {@code item} to fire at {@code epochMillis}; safe to call from any thread. */
+    public void schedule(T item, long epochMillis) {
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(epochMillis - System.currentTimeMillis());
+        incoming.add(new Entry<>(item, System.nanoTime() + delayNanos));
+        size.incrementAndGet();
+    }
+
+    /** Number of items scheduled and not yet handed to the callback. */
+    public int size() {
+        return size.get();
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+            }
+            transferIncoming();
+            List<T> expired = expireBucket((int) (tick & mask), tickDeadline);
+            tick++;
+            if (!expired.isEmpty()) {
+                size.addAndGet(-expired.size());
+                try {
+                    onExpired.accept(expired);
+                } catch (Exception e) {
+                    log.error("Timing wheel callback failed for {} items", expired.size(), e);
+                }
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        Entry<T> entry;
+        while ((entry = incoming.poll()) != null) {
+            long ticksFromStart = Math.max(tick, (entry.deadlineNanos - startNanos) / tickNanos);
+            entry.remainingRounds = (ticksFromStart - tick) / buckets.length;
+            int index = (int) (ticksFromStart & mask);
+            entry.next = buckets[index];
+            buckets[index] = entry;
+        }
+    }
+
+    private List<T> expireBucket(int index, long tickDeadline) {
+        List<T> expired = new ArrayList<>();
+        Entry<T> previous = null;
+        Entry<T> entry = buckets[index];
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            if (entry.remainingRounds <= 0 && entry.deadlineNanos <= tickDeadline) {
+                expired.add(entry.item);
+                if (previous == null) {
+                    buckets[index] = next;
+                } else {
+                    previous.next = next;
+                }
+            } else {
+                entry.remainingRounds--;
+                previous = entry;
+            }
+            entry = next;
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,277 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adjusts consumer count and prefetch of the notification listener within configured bounds.
+ *
+ * <p>Each tick sizes the container for the current queue backlog, but refuses to add consumers
+ * while SMTP latency is above its ceiling or the Hikari pool is saturated, since more consumers
+ * would only queue up behind the same bottleneck. Scale-down waits for a number of quiet ticks and
+ * relies on the container cancelling surplus consumers after their in-flight message, with any
+ * prefetched but unprocessed deliveries requeued by the broker.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+        name = "rabbitmq.notification.listener.autoscale.enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class ListenerAutoscaler {
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final ObjectProvider<DataSource> dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Counter scaleUps;
+    private final Counter scaleDowns;
+    private final Counter prefetchAdjustments;
+
+    private final AtomicInteger consumers = new AtomicInteger();
+    private final AtomicInteger prefetch = new AtomicInteger();
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    @Value("${rabbitmq.notification.queue.name}")
+    private String queueName;
+
+    @Value("${rabbitmq.notification.listener.min-consumers:1}")
+    private int minConsumers;
+
+    @Value("${rabbitmq.notification.listener.max-consumers:8}")
+    private int maxConsumers;
+
+    @Value("${rabbitmq.notification.listener.prefetch:10}")
+    private int initialPrefetch;
+
+    @Value("${rabbitmq.notification.listener.min-prefetch:1}")
+    private int minPrefetch;
+
+    @Value("${rabbitmq.notification.listener.max-prefetch:50}")
+    private int maxPrefetch;
+
+    @Value("${rabbitmq.notification.listener.autoscale.backlog-per-consumer:20}")
+    private int backlogPerConsumer;
+
+    @Value("${rabbitmq.notification.listener.autoscale.smtp-latency-ceiling-ms:2000}")
+    private long smtpLatencyCeilingMs;
+
+    @Value("${rabbitmq.notification.listener.autoscale.pool-saturation-threshold:0.8}")
+    private double poolSaturationThreshold;
+
+    @Value("${rabbitmq.notification.listener.autoscale.prefetch-window-ms:2000}")
+    private long prefetchWindowMs;
+
+    @Value("${rabbitmq.notification.listener.autoscale.scale-down-quiet-ticks:3}")
+    private int scaleDownQuietTicks;
+
+    private int quietTicks;
+    private long lastSmtpCount;
+    private double lastSmtpTotalMs;
+
+    public ListenerAutoscaler(
+            RabbitListenerEndpointRegistry listenerRegistry,
+            AmqpAdmin amqpAdmin,
+            ObjectProvider<DataSource> dataSource,
+            MeterRegistry meterRegistry) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.scaleUps = Counter.builder("notification.listener.scaling")
+                .tag("direction", "up")
+                .register(meterRegistry);
+        this.scaleDowns = Counter.builder("notification.listener.scaling")
+                .tag("direction", "down")
+                .register(meterRegistry);
+        this.prefetchAdjustments =
+                Counter.builder("notification.listener.prefetch.adjustments").register(meterRegistry);
+        Gauge.builder("notification.listener.consumers", consumers, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("notification.listener.prefetch", prefetch, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("notification.listener.queue.depth", queueDepth, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${rabbitmq.notification.listener.autoscale.interval-ms:5000}",
+            fixedDelayString = "${rabbitmq.notification.listener.autoscale.interval-ms:5000}")
+    public synchronized void evaluate() {
+        SimpleMessageListenerContainer container = container();
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+        if (info == null) {
+            log.debug("Queue {} not available, skipping autoscale tick", queueName);
+            return;
+        }
+        if (consumers.get() == 0) {
+            consumers.set(Math.max(minConsumers, container.getActiveConsumerCount()));
+            prefetch.set(initialPrefetch);
+        }
+
+        final int current = consumers.get();
+        final long depth = info.getMessageCount();
+        final double smtpLatencyMs = windowedSmtpLatencyMs();
+        final double poolUsage = poolUsage();
+        queueDepth.set(depth);
+
+        Decision decision = policy().decide(current, depth, smtpLatencyMs, poolUsage, quietTicks);
+        quietTicks = decision.quietTicks();
+        int target = decision.target();
+        String reason = decision.reason();
+        if (target != current) {
+            container.setConcurrentConsumers(target);
+            consumers.set(target);
+            (target > current ? scaleUps : scaleDowns).increment();
+            log.info(
+                    "Scaled notification listener {} -> {} consumers (reason={}, depth={}, smtpLatencyMs={}, poolUsage={})",
+                    current,
+                    target,
+                    reason,
+                    depth,
+                    Math.round(smtpLatencyMs),
+                    String.format("%.2f", poolUsage));
+        }
+
+        adjustPrefetch(container, smtpLatencyMs);
+    }
+
+    /** Outcome of one tick: the consumer count to set, why, and the quiet-tick count to carry over. */
+    record Decision(int target, String reason, int quietTicks) {}
+
+    /** The scaling bounds and thresholds; {@link #decide} is a pure function of them and one tick's signals. */
+    record Policy(
+            int minConsumers,
+            int maxConsumers,
+            int backlogPerConsumer,
+            long smtpLatencyCeilingMs,
+            double poolSaturationThreshold,
+            int scaleDownQuietTicks) {
+
+        /**
+         * Sizes for the backlog, holds while SMTP is slow, shrinks while the pool is saturated, and
+         * only scales down for backlog after enough quiet ticks. Moves at most one consumer per tick.
+         */
+        Decision decide(int current, long depth, double smtpLatencyMs, double poolUsage, int quietTicks) {
+            int desired = clamp((int) Math.ceil((double) depth / backlogPerConsumer), minConsumers, maxConsumers);
+            String reason = "backlog";
+            if (desired > current && smtpLatencyMs > smtpLatencyCeilingMs) {
+                desired = current;
+                reason = "smtp-latency";
+            }
+            if (poolUsage >= poolSaturationThreshold) {
+                desired = Math.max(minConsumers, Math.min(desired, current - 1));
+                reason = "pool-saturation";
+            }
+
+            if (desired < current && "backlog".equals(reason) && ++quietTicks < scaleDownQuietTicks) {
+                desired = current;
+            } else if (desired >= current) {
+                quietTicks = 0;
+            }
+
+            int target = desired > current ? current + 1 : desired < current ? current - 1 : current;
+            return new Decision(target, reason, target != current ? 0 : quietTicks);
+        }
+    }
+
+    private Policy policy() {
+        return new Policy(
+                minConsumers,
+                maxConsumers,
+                backlogPerConsumer,
+                smtpLatencyCeilingMs,
+                poolSaturationThreshold,
+                scaleDownQuietTicks);
+    }
+
+    /**
+     * Sizes prefetch so each consumer holds roughly {@code prefetch-window-ms} worth of work. The
+     * container applies the new value to consumers it starts afterwards, so it takes effect as
+     * consumers are added or recycled.
+     */
+    private void adjustPrefetch(SimpleMessageListenerContainer container, double smtpLatencyMs) {
+        if (smtpLatencyMs <= 0) {
+            return;
+        }
+        int target = clamp((int) (prefetchWindowMs / smtpLatencyMs), minPrefetch, maxPrefetch);
+        int current = prefetch.get();
+        // ignore small swings so a noisy latency signal does not churn the setting
+        if (target != current && Math.abs(target - current) * 4 >= current) {
+            container.setPrefetchCount(target);
+            prefetch.set(target);
+            prefetchAdjustments.increment();
+            log.info(
+                    "Adjusted notification listener prefetch {} -> {} (smtpLatencyMs={})",
+                    current,
+                    target,
+                    Math.round(smtpLatencyMs));
+        }
+    }
+
+    /** Mean SMTP send latency since the previous tick, or 0 if nothing was sent. */
+    private double windowedSmtpLatencyMs() {
+        long count = 0;
+        double totalMs = 0;
+        for (Timer timer : meterRegistry.find(EmailService.SMTP_SEND_TIMER).timers()) {
+            count += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        long deltaCount = count - lastSmtpCount;
+        double deltaMs = totalMs - lastSmtpTotalMs;
+        lastSmtpCount = count;
+        lastSmtpTotalMs = totalMs;
+        return deltaCount > 0 ? deltaMs / deltaCount : 0;
+    }
+
+    /** Share of the pool in use, counting waiting threads as demand beyond the pool size. */
+    private double poolUsage() {
+        DataSource ds = dataSource.getIfAvailable();
+        if (ds == null) {
+            return 0;
+        }
+        try {
+            HikariDataSource hikari = ds.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null || hikari.getMaximumPoolSize() <= 0) {
+                return 0;
+            }
+            return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                    / hikari.getMaximumPoolSize();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private SimpleMessageListenerContainer container() {
+        MessageListenerContainer container =
+                listenerRegistry.getListenerContainer(NotificationConsumerService.LISTENER_ID);
+        return container instanceof SimpleMessageListenerContainer smlc ? smlc : null;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
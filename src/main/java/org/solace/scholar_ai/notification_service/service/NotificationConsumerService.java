@@ -1,11 +1,18 @@
 package org.solace.scholar_ai.notification_service.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.exception.DeliveryInterruptedException;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,131 +20,100 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class NotificationConsumerService {
 
+    /** Listener container id, used by components that manage the container at runtime. */
+    public static final String LISTENER_ID = "notificationListener";
+
     private final EmailService emailService;
     private final NotificationPersistenceService persistenceService;
     private final AppNotificationService appNotificationService;
+    private final NotificationDrainCoordinator drainCoordinator;
+    private final StartupTimingRecorder startupTimingRecorder;
+    private final NotificationPreferenceService preferenceService;
+    private final ScheduledDeliveryService scheduledDeliveryService;
+    private final MeterRegistry meterRegistry;
+    private final DeliveryTracer deliveryTracer;
+    private final NotificationTypeRegistry typeRegistry;
+    private final ObjectProvider<NotificationShardManager> shardManager;
+
+    /**
+     * Started by {@link StartupWarmup} once warm-up is done, not with the context. With sharding on,
+     * requests are only forwarded to their user's shard here and delivered by {@link #consume}.
+     */
+    @RabbitListener(id = LISTENER_ID, queues = "${rabbitmq.notification.queue.name}", autoStartup = "false")
+    public void handleNotification(
+            NotificationRequest request,
+            @Header(name = AmqpHeaders.REDELIVERED, required = false) Boolean redelivered) {
+        NotificationShardManager shards = shardManager.getIfAvailable();
+        if (shards != null) {
+            shards.forward(request);
+            return;
+        }
+        consume(request, redelivered);
+    }
+
+    /**
+     * Delivers a request on this instance; the entry point of the shard listeners. Queue wait runs
+     * from the last time the service published the request, falling back to the producer's
+     * timestamp, and is not recorded for a redelivery, whose wait includes earlier attempts.
+     */
+    public void consume(
+            NotificationRequest request,
+            @Header(name = AmqpHeaders.REDELIVERED, required = false) Boolean redelivered) {
+        if (!drainCoordinator.tryBeginDelivery()) {
+            throw new ImmediateRequeueAmqpException("Instance is draining, requeueing notification");
+        }
+        startupTimingRecorder.markMessageConsumed();
+        Instant enqueuedAt = Boolean.TRUE.equals(redelivered)
+                ? null
+                : request.getEnqueuedAt() != null ? request.getEnqueuedAt() : request.getTimestamp();
+        deliveryTracer.begin(request.getNotificationType(), request.getUserId(), enqueuedAt);
+        try {
+            process(request);
+        } finally {
+            deliveryTracer.finish();
+            drainCoordinator.endDelivery();
+        }
+    }
 
-    @RabbitListener(queues = "${rabbitmq.notification.queue.name}")
-    public void handleNotification(NotificationRequest request) {
+    private void process(NotificationRequest request) {
         log.info(
                 "Received notification request: {} for {}", request.getNotificationType(), request.getRecipientEmail());
+        long dispatchStart = System.nanoTime();
 
         try {
-            NotificationRequest.NotificationType type =
-                    NotificationRequest.NotificationType.valueOf(request.getNotificationType());
-            switch (type) {
-                case WELCOME_EMAIL:
-                    emailService.sendWelcomeEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Welcome to " + "", "welcome-email");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "welcome_email",
-                            "🎉 Welcome to ScholarAI!",
-                            "Your account has been created successfully. Start exploring research papers.",
-                            AppNotification.NotificationPriority.LOW,
-                            "/interface/projects",
-                            "Get Started");
-                    break;
-
-                case PASSWORD_RESET:
-                    emailService.sendPasswordResetEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Password Reset", "password-reset-email");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "password_reset",
-                            "🔐 Password Reset Request",
-                            "A password reset request was received for your account.",
-                            AppNotification.NotificationPriority.HIGH,
-                            "/interface/account",
-                            "Update Password");
-                    break;
-
-                case EMAIL_VERIFICATION:
-                    emailService.sendEmailVerificationEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Verify Your Email", "email-verification");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "email_verification",
-                            "✉️ Email Verification Required",
-                            "Please verify your email address to complete your account setup.",
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/account",
-                            "Verify Email");
-                    break;
-
-                case ACCOUNT_UPDATE:
-                    log.info("Account update email not yet implemented");
-                    break;
-
-                case WEB_SEARCH_COMPLETED:
-                    emailService.sendWebSearchCompletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Web Search Completed", "web-search-completed");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "web_search_completed",
-                            buildWebSearchTitle(request.getTemplateData()),
-                            buildWebSearchMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/projects",
-                            "View Results");
-                    break;
-
-                case SUMMARIZATION_COMPLETED:
-                    emailService.sendSummarizationCompletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Summarization Completed", "summarization-completed");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "summarization_completed",
-                            buildSummaryTitle(request.getTemplateData()),
-                            buildSummaryMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/projects",
-                            "View Summary");
-                    break;
-
-                case PROJECT_DELETED:
-                    emailService.sendProjectDeletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Project Deleted", "project-deleted");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "project_deleted",
-                            buildProjectDeletedTitle(request.getTemplateData()),
-                            buildProjectDeletedMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.HIGH,
-                            "/interface/projects",
-                            "View Projects");
-                    break;
-
-                case GAP_ANALYSIS_COMPLETED:
-                    emailService.sendGapAnalysisCompletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Gap Analysis Completed", "gap-analysis-completed");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "gap_analysis_completed",
-                            buildGapAnalysisTitle(request.getTemplateData()),
-                            buildGapAnalysisMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/projects",
-                            "View Analysis");
-                    break;
-
-                default:
-                    log.warn("Unknown notification type: {}", request.getNotificationType());
+            NotificationTypeRegistry.Definition definition = typeRegistry.find(request.getNotificationType());
+            if (definition == null) {
+                log.warn("Unknown notification type: {}", request.getNotificationType());
+                persistenceService.saveFailure(
+                        request,
+                        request.getNotificationType(),
+                        "unknown",
+                        new IllegalArgumentException("Unknown notification type: " + request.getNotificationType()));
+                return;
             }
+            NotificationRequest.NotificationType type = definition.type();
+            NotificationPreferenceService.Channels channels = preferenceService.resolve(request.getUserId(), type);
+            if (!channels.email()) {
+                countSuppressed(type, "email");
+            }
+            if (!channels.inApp()) {
+                countSuppressed(type, "in_app");
+            }
+            if (channels.none()) {
+                log.info("All channels disabled by user {} for {}, skipping", request.getUserId(), type);
+                return;
+            }
+            if (scheduledDeliveryService.deferIfNeeded(request, type)) {
+                return;
+            }
+            deliveryTracer.record(DeliveryStage.DISPATCH, dispatchStart);
+            deliver(request, definition, channels);
+        } catch (DeliveryInterruptedException e) {
+            log.warn(
+                    "Delivery of {} to {} interrupted by shutdown, requeueing",
+                    request.getNotificationType(),
+                    request.getRecipientEmail());
+            throw new ImmediateRequeueAmqpException(e.getMessage(), e);
         } catch (Exception e) {
             log.error(
                     "Failed to process notification: {} for {}",
@@ -149,115 +125,53 @@ public class NotificationConsumerService {
         }
     }
 
-    private void createAppNotification(
-            NotificationRequest request,
-            AppNotification.NotificationKind kind,
-            String category,
-            String title,
-            String message,
-            AppNotification.NotificationPriority priority,
-            String actionUrl,
-            String actionText) {
-        appNotificationService.create(
-                request.getUserId(),
-                kind,
-                category,
-                title,
-                message,
-                priority,
-                actionUrl,
-                actionText,
-                extractString(request.getTemplateData(), "projectId", "project_id"),
-                extractString(request.getTemplateData(), "paperId", "paper_id"),
-                null,
-                request.getTemplateData());
-    }
-
-    private String buildWebSearchTitle(Map<String, Object> data) {
-        final String project = extractString(data, "projectName", "project_name", "name");
-        final Integer count = extractInt(data, "papersCount", "papers_count");
-        return "🔍 Research Search Complete" + (project != null ? " • " + project : "")
-                + (count != null ? " (" + count + " papers)" : "");
+    private void countSuppressed(NotificationRequest.NotificationType type, String channel) {
+        meterRegistry
+                .counter("notification.suppressed", "type", type.name(), "channel", channel)
+                .increment();
     }
 
-    private String buildWebSearchMessage(Map<String, Object> data) {
-        final String project = extractString(data, "projectName", "project_name", "name");
-        final String query = extractString(data, "searchParams", "search_params", "query");
-        final Integer count = extractInt(data, "papersCount", "papers_count");
-        if (project != null && query != null) {
-            return String.format(
-                    "Web search completed for \"%s\". Found %d papers matching \"%s\".",
-                    project, count != null ? count : 0, query);
+    private void deliver(
+            NotificationRequest request,
+            NotificationTypeRegistry.Definition definition,
+            NotificationPreferenceService.Channels channels) {
+        if (!definition.sendsEmail() && !definition.createsAppNotification()) {
+            log.info("No delivery configured for {} yet", definition.type());
+            return;
         }
-        return String.format("Academic paper search completed. Found %d papers.", count != null ? count : 0);
-    }
-
-    private String buildSummaryTitle(Map<String, Object> data) {
-        final String title = extractString(data, "paperTitle", "paper_title", "title");
-        return "📄 AI Summary Ready" + (title != null ? " • " + truncate(title, 40) : "");
-    }
-
-    private String buildSummaryMessage(Map<String, Object> data) {
-        final String title = extractString(data, "paperTitle", "paper_title", "title");
-        final String conf = extractString(data, "summaryConfidence", "summary_confidence");
-        return "AI-powered summary generated for \"" + (title != null ? title : "paper") + "\""
-                + (conf != null ? " with " + conf + " confidence." : ".");
-    }
-
-    private String buildProjectDeletedTitle(Map<String, Object> data) {
-        final String name = extractString(data, "projectName", "project_name", "name");
-        return "🗑️ Project Deleted" + (name != null ? " • " + name : "");
-    }
-
-    private String buildProjectDeletedMessage(Map<String, Object> data) {
-        final String name = extractString(data, "projectName", "project_name", "name");
-        final Integer papers = extractInt(data, "papersCount", "papers_count");
-        final Integer notes = extractInt(data, "notesCount", "notes_count");
-        return String.format(
-                "Project \"%s\" deleted. Removed %d papers%s.",
-                name != null ? name : "Unnamed Project",
-                papers != null ? papers : 0,
-                notes != null ? ", " + notes + " notes" : "");
-    }
-
-    private String buildGapAnalysisTitle(Map<String, Object> data) {
-        final String title = extractString(data, "paperTitle", "paper_title", "title");
-        final Integer gaps = extractInt(data, "gapsCount", "gaps_count", "totalGaps", "total_gaps");
-        return "🎯 Gap Analysis Complete" + (title != null ? " • " + truncate(title, 30) : "")
-                + (gaps != null ? " (" + gaps + " gaps)" : "");
-    }
-
-    private String buildGapAnalysisMessage(Map<String, Object> data) {
-        final Integer gaps = extractInt(data, "gapsCount", "gaps_count", "totalGaps", "total_gaps");
-        return String.format("Gap analysis completed. Identified %d research opportunities.", gaps != null ? gaps : 0);
-    }
-
-    private String extractString(Map<String, Object> map, String... keys) {
-        if (map == null) return null;
-        for (String k : keys) {
-            Object v = map.get(k);
-            if (v instanceof String s && !s.isBlank()) return s;
+        if (channels.email() && definition.sendsEmail()) {
+            emailService.sendTemplatedEmail(
+                    request.getRecipientEmail(),
+                    definition.subject(),
+                    definition.template(),
+                    request.getTemplateData());
+            persistenceService.saveSuccess(request, definition.recordSubject(), definition.template());
+        }
+        if (channels.inApp() && definition.createsAppNotification()) {
+            Map<String, Object> data = request.getTemplateData();
+            appNotificationService.create(
+                    request.getUserId(),
+                    AppNotification.NotificationKind.SERVICE,
+                    definition.category(),
+                    definition.title().apply(data),
+                    definition.message().apply(data),
+                    definition.priority(),
+                    definition.actionUrl(),
+                    definition.actionText(),
+                    NotificationTypeRegistry.extractString(data, "projectId", "project_id"),
+                    NotificationTypeRegistry.extractString(data, "paperId", "paper_id"),
+                    null,
+                    data);
         }
-        return null;
     }
 
-    private Integer extractInt(Map<String, Object> map, String... keys) {
-        if (map == null) return null;
-        for (String k : keys) {
-            Object v = map.get(k);
-            if (v instanceof Number n) return n.intValue();
-            if (v instanceof String s) {
-                try {
-                    return Integer.parseInt(s);
-                } catch (Exception ignored) {
-                }
+    /** Runs every in-app title and message formatter once; used by {@link StartupWarmup}. */
+    void warmUpBuilders(Map<String, Object> data) {
+        for (NotificationTypeRegistry.Definition definition : typeRegistry.all()) {
+            if (definition.createsAppNotification()) {
+                definition.title().apply(data);
+                definition.message().apply(data);
             }
         }
-        return null;
-    }
-
-    private String truncate(String s, int max) {
-        if (s == null) return null;
-        return s.length() > max ? s.substring(0, max) + "..." : s;
     }
 }
@@ -0,0 +1,136 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coordinates shutdown so a rolling deploy neither loses nor duplicates notifications.
+ *
+ * <p>Runs on {@link ContextClosedEvent}, before any lifecycle bean is stopped: readiness is
+ * reported as refusing traffic, listener containers stop taking new deliveries (prefetched but
+ * unstarted messages go back to the broker), in-flight deliveries get until the drain deadline to
+ * finish, and buffered writes are flushed last. Deliveries waiting out a retry backoff are woken
+ * immediately and requeued rather than recorded as failures.
+ */
+@Component
+@Slf4j
+public class NotificationDrainCoordinator {
+
+    private final ApplicationContext applicationContext;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final ObjectProvider<PendingWriteFlusher> flushers;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final CountDownLatch drainSignal = new CountDownLatch(1);
+    private volatile boolean draining;
+
+    @Value("${notification.shutdown.drain-timeout-ms:20000}")
+    private long drainTimeoutMs;
+
+    public NotificationDrainCoordinator(
+            ApplicationContext applicationContext,
+            RabbitListenerEndpointRegistry listenerRegistry,
+            ObjectProvider<PendingWriteFlusher> flushers) {
+        this.applicationContext = applicationContext;
+        this.listenerRegistry = listenerRegistry;
+        this.flushers = flushers;
+    }
+
+    /**
+     * Registers a delivery as in flight. Returns false once draining has started, in which case
+     * the caller must hand the message back without processing it.
+     */
+    public boolean tryBeginDelivery() {
+        inFlight.incrementAndGet();
+        if (draining) {
+            endDelivery();
+            return false;
+        }
+        return true;
+    }
+
+    public void endDelivery() {
+        if (inFlight.decrementAndGet() == 0 && draining) {
+            synchronized (inFlight) {
+                inFlight.notifyAll();
+            }
+        }
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Waits out a retry backoff. Returns true if draining started meanwhile, meaning the caller
+     * should stop retrying and give the message back.
+     */
+    public boolean awaitRetryBackoff(long millis) throws InterruptedException {
+        return drainSignal.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onContextClosed(ContextClosedEvent event) {
+        if (event.getApplicationContext() != applicationContext || draining) {
+            return;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        log.info("Draining notification pipeline ({} in flight, deadline {} ms)", inFlight.get(), drainTimeoutMs);
+
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        draining = true;
+        drainSignal.countDown();
+
+        // Blocks until each container's consumers finish their current message or the
+        // container shutdown timeout passes; unacked deliveries are requeued by the broker.
+        listenerRegistry.stop();
+
+        awaitInFlight(deadline);
+
+        flushers.orderedStream().forEach(flusher -> {
+            try {
+                flusher.flushPending(remaining(deadline));
+            } catch (Exception e) {
+                log.error(
+                        "Failed to flush pending writes from {}",
+                        flusher.getClass().getSimpleName(),
+                        e);
+            }
+        });
+        log.info("Notification pipeline drained ({} still in flight)", inFlight.get());
+    }
+
+    private void awaitInFlight(long deadline) {
+        synchronized (inFlight) {
+            while (inFlight.get() > 0) {
+                long waitMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (waitMs <= 0) {
+                    log.warn("Drain deadline reached with {} deliveries in flight", inFlight.get());
+                    return;
+                }
+                try {
+                    inFlight.wait(waitMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+}
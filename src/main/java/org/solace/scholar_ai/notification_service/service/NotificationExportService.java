@@ -0,0 +1,151 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams a user's full history as NDJSON: one {@code {"source": ..., "data": ...}} line per email
+ * record, then one per app notification, each oldest first. Rows are read through a forward-only
+ * cursor and written in chunks. Each chunk's payloads are resolved with one lookup, and the
+ * persistence context is cleared after every chunk, so memory stays flat however long the history
+ * is.
+ */
+@Service
+@Slf4j
+public class NotificationExportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final Instant MAX_INSTANT = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final NotificationRecordRepository recordRepository;
+    private final AppNotificationRepository appNotificationRepository;
+    private final AppNotificationArchiveService archive;
+    private final PayloadStore payloadStore;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public NotificationExportService(
+            NotificationRecordRepository recordRepository,
+            AppNotificationRepository appNotificationRepository,
+            AppNotificationArchiveService archive,
+            PayloadStore payloadStore,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        this.recordRepository = recordRepository;
+        this.appNotificationRepository = appNotificationRepository;
+        this.archive = archive;
+        this.payloadStore = payloadStore;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    record Line(String source, Object data) {}
+
+    /** Writes the export to {@code out}; null bounds mean unbounded. Does not close the stream. */
+    public void export(UUID userId, Instant from, Instant to, OutputStream out) {
+        final Instant lower = from != null ? from : Instant.EPOCH;
+        final Instant upper = to != null ? to : MAX_INSTANT;
+        long start = System.nanoTime();
+        long[] lines = new long[1];
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<NotificationRecord> records = recordRepository.streamByUser(userId, lower, upper)) {
+                lines[0] += writeChunked(
+                        records,
+                        "notification",
+                        NotificationRecord::getTemplateDataHash,
+                        NotificationRecord::setTemplateDataJson,
+                        out);
+            }
+            try (Stream<AppNotification> notifications = appNotificationRepository.streamByUser(userId, lower, upper)) {
+                lines[0] += writeChunked(
+                        notifications,
+                        "app_notification",
+                        AppNotification::getMetadataHash,
+                        AppNotification::setMetadataJson,
+                        out);
+            }
+            try (Stream<AppNotification> archived = archive.streamByUser(userId, lower, upper)) {
+                lines[0] += writeChunked(
+                        archived,
+                        "app_notification",
+                        AppNotification::getMetadataHash,
+                        AppNotification::setMetadataJson,
+                        out);
+            }
+        });
+        log.info("Exported {} rows for user {} in {} ms", lines[0], userId, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private <T> long writeChunked(
+            Stream<T> rows,
+            String source,
+            Function<T, String> hashOf,
+            BiConsumer<T, String> setPayload,
+            OutputStream out) {
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        long[] written = new long[1];
+        rows.forEach(row -> {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                written[0] += flushChunk(chunk, source, hashOf, setPayload, out);
+            }
+        });
+        written[0] += flushChunk(chunk, source, hashOf, setPayload, out);
+        return written[0];
+    }
+
+    private <T> int flushChunk(
+            List<T> chunk,
+            String source,
+            Function<T, String> hashOf,
+            BiConsumer<T, String> setPayload,
+            OutputStream out) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Map<String, String> payloads = payloadStore.getAll(
+                chunk.stream().map(hashOf).filter(Objects::nonNull).toList());
+        try {
+            for (T row : chunk) {
+                setPayload.accept(row, payloads.get(hashOf.apply(row)));
+                objectMapper.writeValue(out, new Line(source, row));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export stream closed by client", e);
+        }
+        int size = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return size;
+    }
+}
@@ -1,13 +1,19 @@
 package org.solace.scholar_ai.notification_service.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
 import org.solace.scholar_ai.notification_service.model.NotificationRecord;
 import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -15,7 +21,11 @@ import org.springframework.stereotype.Service;
 public class NotificationPersistenceService {
 
     private final NotificationRecordRepository repository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PayloadStore payloadStore;
+    private final ObjectProvider<AuditWriteBehindBuffer> writeBehind;
+    private final DeliveryTracer deliveryTracer;
+    private final NotificationStatsService stats;
+    private final TransactionTemplate transactionTemplate;
 
     public void saveSuccess(NotificationRequest req, String subject, String templateName) {
         try {
@@ -26,15 +36,12 @@ public class NotificationPersistenceService {
                     .type(req.getNotificationType())
                     .subject(subject)
                     .templateName(templateName)
-                    .templateDataJson(
-                            req.getTemplateData() != null
-                                    ? objectMapper.writeValueAsString(req.getTemplateData())
-                                    : null)
                     .status("SENT")
+                    .replayJobId(req.getReplayJobId())
                     .createdAt(Instant.now())
                     .sentAt(Instant.now())
                     .build();
-            repository.save(record);
+            save(record, req.getTemplateData());
         } catch (Exception e) {
             log.warn("Failed to persist notification record: {}", e.getMessage());
         }
@@ -49,17 +56,71 @@ public class NotificationPersistenceService {
                     .type(req.getNotificationType())
                     .subject(subject)
                     .templateName(templateName)
-                    .templateDataJson(
-                            req.getTemplateData() != null
-                                    ? objectMapper.writeValueAsString(req.getTemplateData())
-                                    : null)
                     .status("FAILED")
                     .createdAt(Instant.now())
                     .errorMessage(error.getMessage())
+                    .errorClass(NestedExceptionUtils.getMostSpecificCause(error)
+                            .getClass()
+                            .getSimpleName())
+                    .replayJobId(req.getReplayJobId())
                     .build();
-            repository.save(record);
+            save(record, req.getTemplateData());
         } catch (Exception e) {
             log.warn("Failed to persist failed notification record: {}", e.getMessage());
         }
     }
+
+    /**
+     * Hands the record to the write-behind buffer when enabled, otherwise inserts it now in one
+     * transaction with its payload and stats counters.
+     */
+    private void save(NotificationRecord record, Object templateData) {
+        long start = System.nanoTime();
+        try {
+            AuditWriteBehindBuffer buffer = writeBehind.getIfAvailable();
+            if (buffer == null) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    record.setTemplateDataHash(payloadStore.put(templateData));
+                    repository.save(record);
+                    stats.deliveriesRecorded(List.of(record));
+                });
+                return;
+            }
+            buffer.enqueue(record, templateData);
+            // Buffered records are counted when accepted; reconciliation corrects any later drop
+            try {
+                stats.deliveriesRecorded(List.of(record));
+            } catch (Exception e) {
+                log.warn("Failed to count buffered notification record, left to reconciliation: {}", e.getMessage());
+            }
+        } finally {
+            deliveryTracer.record(DeliveryStage.DB_WRITE, start);
+        }
+    }
+
+    /** Records for a user, newest first, with their template data resolved. */
+    public List<NotificationRecord> listByUser(UUID userId) {
+        List<NotificationRecord> records = repository.findByUserIdOrderByCreatedAtDesc(userId);
+        Map<String, String> payloads = payloadStore.getAll(records.stream()
+                .map(NotificationRecord::getTemplateDataHash)
+                .filter(Objects::nonNull)
+                .toList());
+        records.forEach(r -> r.setTemplateDataJson(payloads.get(r.getTemplateDataHash())));
+        return records;
+    }
+
+    /**
+     * Inserts records and their stats counters in one transaction, so the records go out as JDBC
+     * batches and the counters commit with them.
+     */
+    public void saveAll(List<NotificationRecord> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.saveAll(records);
+                stats.deliveriesRecorded(records);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to persist {} notification records: {}", records.size(), e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,131 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.NotificationPreference;
+import org.solace.scholar_ai.notification_service.repository.NotificationPreferenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-user, per-type, per-channel delivery preferences. Channels are enabled unless the user
+ * turned them off. Lookups on the consume path are served from an in-memory cache of each user's
+ * opt-outs; writes on this instance invalidate the entry, other instances pick changes up when the
+ * entry expires.
+ */
+@Service
+@Slf4j
+public class NotificationPreferenceService {
+
+    /** Security-relevant emails that users cannot opt out of. */
+    private static final Set<NotificationRequest.NotificationType> MANDATORY_EMAIL = EnumSet.of(
+            NotificationRequest.NotificationType.PASSWORD_RESET,
+            NotificationRequest.NotificationType.EMAIL_VERIFICATION);
+
+    private final NotificationPreferenceRepository repository;
+    private final LoadingCache<UUID, Set<String>> optOuts;
+
+    public NotificationPreferenceService(
+            NotificationPreferenceRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${notification.preferences.cache.max-users:100000}") long maxUsers,
+            @Value("${notification.preferences.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.repository = repository;
+        this.optOuts = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::loadOptOuts);
+        CaffeineCacheMetrics.monitor(meterRegistry, optOuts, "notificationPreferences");
+    }
+
+    /** Which channels a notification of this type may use for this user. */
+    public record Channels(boolean email, boolean inApp) {
+        public static final Channels ALL = new Channels(true, true);
+
+        public boolean none() {
+            return !email && !inApp;
+        }
+    }
+
+    public Channels resolve(UUID userId, NotificationRequest.NotificationType type) {
+        if (userId == null) {
+            return Channels.ALL;
+        }
+        Set<String> disabled = optOuts.get(userId);
+        if (disabled.isEmpty()) {
+            return Channels.ALL;
+        }
+        boolean email = MANDATORY_EMAIL.contains(type)
+                || !disabled.contains(key(type.name(), NotificationPreference.Channel.EMAIL));
+        boolean inApp = !disabled.contains(key(type.name(), NotificationPreference.Channel.IN_APP));
+        return new Channels(email, inApp);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationPreference> listByUser(UUID userId) {
+        return repository.findByUserId(userId);
+    }
+
+    @Transactional
+    public NotificationPreference update(
+            UUID userId,
+            NotificationRequest.NotificationType type,
+            NotificationPreference.Channel channel,
+            boolean enabled) {
+        if (!enabled && channel == NotificationPreference.Channel.EMAIL && MANDATORY_EMAIL.contains(type)) {
+            throw new IllegalArgumentException("Email for " + type + " cannot be disabled");
+        }
+        repository.upsert(UUID.randomUUID(), userId, type.name(), channel.name(), enabled);
+        NotificationPreference saved = repository
+                .findByUserIdAndNotificationTypeAndChannel(userId, type.name(), channel)
+                .orElseThrow();
+        invalidateAfterCommit(userId);
+        log.info("Set {} {} notifications {} for user {}", type, channel, enabled ? "on" : "off", userId);
+        return saved;
+    }
+
+    @Transactional
+    public void reset(UUID userId) {
+        repository.deleteAll(repository.findByUserId(userId));
+        invalidateAfterCommit(userId);
+        log.info("Reset notification preferences for user {}", userId);
+    }
+
+    /** Invalidating before commit would let a concurrent lookup re-cache the old rows. */
+    private void invalidateAfterCommit(UUID userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                optOuts.invalidate(userId);
+            }
+        });
+    }
+
+    private Set<String> loadOptOuts(UUID userId) {
+        Set<String> disabled = new HashSet<>();
+        for (NotificationPreference p : repository.findByUserId(userId)) {
+            if (!p.isEnabled()) {
+                disabled.add(key(p.getNotificationType(), p.getChannel()));
+            }
+        }
+        return disabled.isEmpty() ? Set.of() : Set.copyOf(disabled);
+    }
+
+    private static String key(String type, NotificationPreference.Channel channel) {
+        return type + ':' + channel.name();
+    }
+}
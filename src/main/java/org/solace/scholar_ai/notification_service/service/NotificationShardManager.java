@@ -0,0 +1,322 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.config.NotificationShardingConfig;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Partitions notifications by user across a fixed set of shard queues and decides which shards
+ * this instance consumes.
+ *
+ * <p>The ingress listener forwards each request to the shard its user hashes to, so one user's
+ * notifications are always handled by one consumer, in order, on the instance whose caches already
+ * hold that user's preferences and quiet hours. Shards are spread over the live instances with
+ * rendezvous hashing on the Eureka instance list: an instance joining or leaving moves only the
+ * shards it gains or gives up. Members are keyed by host and port rather than the Eureka instance
+ * id, since replicas may share an instance id.
+ *
+ * <p>Ownership changes are eventually consistent, as each instance sees the registry on its own
+ * refresh schedule. The shard queues allow a single active consumer, so while two instances both
+ * believe they own a shard the newcomer waits as standby until the previous owner lets go.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "rabbitmq.notification.sharding.enabled", havingValue = "true")
+public class NotificationShardManager {
+
+    private static final String CONTAINER_ID_PREFIX = "notificationShard-";
+    private static final String LOCAL_MEMBER = "local";
+
+    private final NotificationConsumerService consumerService;
+    private final NotificationDrainCoordinator drainCoordinator;
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+    private final Counter forwarded;
+    private final Counter rebalances;
+    private final AtomicInteger ownedCount = new AtomicInteger();
+
+    @Value("${rabbitmq.notification.queue.name}")
+    private String notificationQueueName;
+
+    @Value("${rabbitmq.notification.sharding.exchange:notification-shard-exchange}")
+    private String shardExchangeName;
+
+    @Value("${rabbitmq.notification.sharding.shards:16}")
+    private int shards;
+
+    @Value("${rabbitmq.notification.sharding.forward-confirm-timeout-ms:5000}")
+    private long forwardConfirmTimeoutMs;
+
+    @Value("${spring.application.name:notification-service}")
+    private String serviceId;
+
+    private volatile boolean ready;
+    private BitSet owned = new BitSet();
+
+    public NotificationShardManager(
+            NotificationConsumerService consumerService,
+            NotificationDrainCoordinator drainCoordinator,
+            RabbitTemplate rabbitTemplate,
+            RabbitListenerEndpointRegistry listenerRegistry,
+            SimpleRabbitListenerContainerFactory containerFactory,
+            ObjectProvider<DiscoveryClient> discoveryClient,
+            ObjectProvider<Registration> registration,
+            MeterRegistry meterRegistry) {
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            throw new IllegalStateException("Sharding needs spring.rabbitmq.publisher-confirm-type=correlated");
+        }
+        this.consumerService = consumerService;
+        this.drainCoordinator = drainCoordinator;
+        this.rabbitTemplate = rabbitTemplate;
+        this.listenerRegistry = listenerRegistry;
+        this.containerFactory = containerFactory;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.handlerMethodFactory.afterPropertiesSet();
+        this.forwarded = Counter.builder("notification.sharding.forwarded").register(meterRegistry);
+        this.rebalances = Counter.builder("notification.sharding.rebalances").register(meterRegistry);
+        Gauge.builder("notification.sharding.owned", ownedCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Republishes a request from the ingress queue to its user's shard and returns once the broker
+     * has confirmed it. Throws if the publish is nacked, unroutable or unconfirmed within the
+     * timeout, so the ingress message is rejected and requeued rather than acked and lost.
+     */
+    public void forward(NotificationRequest request) {
+        int shard = request.getUserId() != null
+                ? shardFor(request.getUserId(), shards)
+                : shardFor(request.getRecipientEmail(), shards);
+        CorrelationData correlation = new CorrelationData();
+        rabbitTemplate.convertAndSend(shardExchangeName, String.valueOf(shard), request, correlation);
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = correlation.getFuture().get(forwardConfirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted waiting for the shard " + shard + " confirm", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AmqpException("No confirm for the forward to shard " + shard, e);
+        }
+        if (!confirm.isAck()) {
+            throw new AmqpException("Forward to shard " + shard + " was nacked: " + confirm.getReason());
+        }
+        if (correlation.getReturned() != null) {
+            throw new AmqpException("Forward to shard " + shard + " was unroutable: "
+                    + correlation.getReturned().getReplyText());
+        }
+        forwarded.increment();
+    }
+
+    /** Starts consuming once warm-up has run and the ingress listener is up. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ready = true;
+        rebalance();
+    }
+
+    /** Published on every registry fetch, so membership changes are picked up promptly. */
+    @EventListener(HeartbeatEvent.class)
+    public void onRegistryRefresh() {
+        if (ready) {
+            rebalance();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${rabbitmq.notification.sharding.rebalance-interval-ms:30000}",
+            fixedDelayString = "${rabbitmq.notification.sharding.rebalance-interval-ms:30000}")
+    public void scheduledRebalance() {
+        if (ready) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Starts the containers of shards this instance now owns and stops the others. Does nothing
+     * once the instance is draining, so a registry refresh cannot restart stopped containers.
+     */
+    public synchronized void rebalance() {
+        if (drainCoordinator.isDraining()) {
+            return;
+        }
+        String self = self();
+        List<String> members = members(self);
+        if (members == null) {
+            return;
+        }
+        BitSet next = new BitSet(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            if (self.equals(owner(shard, members))) {
+                next.set(shard);
+            }
+        }
+        if (next.equals(owned) && next.cardinality() == running()) {
+            return;
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(CONTAINER_ID_PREFIX + shard);
+            if (next.get(shard)) {
+                if (container == null) {
+                    register(shard);
+                } else if (!container.isRunning()) {
+                    container.start();
+                }
+            } else if (container != null && container.isRunning()) {
+                container.stop();
+            }
+        }
+        log.info("Consuming {} of {} shards across {} instances: {}", next.cardinality(), shards, members.size(), next);
+        owned = next;
+        ownedCount.set(next.cardinality());
+        rebalances.increment();
+    }
+
+    private int running() {
+        int running = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(CONTAINER_ID_PREFIX + shard);
+            if (container != null && container.isRunning()) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    private void register(int shard) {
+        MethodRabbitListenerEndpoint endpoint = new MethodRabbitListenerEndpoint();
+        endpoint.setId(CONTAINER_ID_PREFIX + shard);
+        endpoint.setQueueNames(NotificationShardingConfig.shardQueueName(notificationQueueName, shard));
+        // The queue admits one active consumer anyway; more would only sit idle
+        endpoint.setConcurrency("1");
+        endpoint.setBean(consumerService);
+        endpoint.setMethod(consumeMethod());
+        endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+        listenerRegistry.registerListenerContainer(endpoint, containerFactory, true);
+    }
+
+    private static Method consumeMethod() {
+        try {
+            return NotificationConsumerService.class.getMethod("consume", NotificationRequest.class, Boolean.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** This instance's member key; without a registration it is the only member. */
+    private String self() {
+        Registration own = registration.getIfAvailable();
+        return own != null ? memberKey(own) : LOCAL_MEMBER;
+    }
+
+    /**
+     * Live instances of this service, always including this one even before the registry lists it;
+     * null if the registry cannot be read, in which case the current shards are kept.
+     */
+    private List<String> members(String self) {
+        TreeSet<String> members = new TreeSet<>();
+        members.add(self);
+        DiscoveryClient client = discoveryClient.getIfAvailable();
+        if (client != null && !LOCAL_MEMBER.equals(self)) {
+            try {
+                for (ServiceInstance instance : client.getInstances(serviceId)) {
+                    members.add(memberKey(instance));
+                }
+            } catch (Exception e) {
+                log.warn("Could not list {} instances, keeping the current shards: {}", serviceId, e.getMessage());
+                return null;
+            }
+        }
+        return new ArrayList<>(members);
+    }
+
+    private static String memberKey(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /** Shard of a user; stable for a given shard count. */
+    static int shardFor(UUID userId, int shards) {
+        return Math.floorMod(mix(userId.getMostSignificantBits() ^ mix(userId.getLeastSignificantBits())), shards);
+    }
+
+    /** Shard for requests that carry no user id. */
+    static int shardFor(String key, int shards) {
+        return key == null ? 0 : Math.floorMod(mix(hash(key)), shards);
+    }
+
+    /**
+     * Owner of a shard by rendezvous hashing: the member with the highest score for it. Removing a
+     * member only reassigns the shards it owned; adding one only takes shards for the newcomer.
+     */
+    static String owner(int shard, Collection<String> members) {
+        String best = null;
+        long bestScore = 0;
+        for (String member : members) {
+            long score = mix(hash(member) ^ mix(shard + 0x9E3779B97F4A7C15L));
+            if (best == null || Long.compareUnsigned(score, bestScore) > 0) {
+                best = member;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /** 64-bit FNV-1a over the UTF-8 bytes. */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** MurmurHash3 finalizer. */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93e53fe1a85L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
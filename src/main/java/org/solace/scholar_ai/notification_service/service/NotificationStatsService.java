@@ -0,0 +1,339 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.model.NotificationStat;
+import org.solace.scholar_ai.notification_service.repository.NotificationStatRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-user notification counts by category, priority, status and day, kept in {@code
+ * notification_stats} and {@code notification_daily_stats} so reading them costs the same however
+ * much history a user has.
+ *
+ * <p>Writers report changes as deltas. Deltas made in a transaction are merged and upserted just
+ * before it commits, so the counters change atomically with the rows they count, and a batch of
+ * inserts or reads for one user costs one upsert per distinct counter. Upserts run in a fixed key
+ * order to avoid deadlocks between writers. Outside a transaction, a delta is written at once.
+ *
+ * <p>A periodic reconciliation rebuilds each user's counters from {@code app_notifications}, the
+ * archive and {@code notifications}, a bounded number of users per run, fixing drift from
+ * writes that bypass this service. It holds a per-user advisory lock that incremental updates take
+ * in shared mode, so no increment is lost or double counted during a rebuild.
+ */
+@Service
+@Slf4j
+public class NotificationStatsService {
+
+    private static final Comparator<Counter> COUNTER_ORDER = Comparator.comparing(Counter::userId)
+            .thenComparing(Counter::source)
+            .thenComparing(Counter::category)
+            .thenComparing(Counter::priority)
+            .thenComparing(Counter::status);
+    private static final Comparator<DayCounter> DAY_ORDER = Comparator.comparing(DayCounter::userId)
+            .thenComparing(DayCounter::source)
+            .thenComparing(DayCounter::day);
+    private static final UUID MIN_UUID = new UUID(0, 0);
+    /** PostgreSQL orders uuids as unsigned bytes, which is the order of their hex strings. */
+    private static final Comparator<UUID> DB_ORDER = Comparator.comparing(UUID::toString);
+
+    record Counter(UUID userId, NotificationStat.Source source, String category, String priority, String status) {}
+
+    record DayCounter(UUID userId, NotificationStat.Source source, LocalDate day) {}
+
+    /** Deltas accumulated in one transaction. */
+    static final class Deltas {
+        final Map<Counter, Long> counters = new TreeMap<>(COUNTER_ORDER);
+        final Map<DayCounter, Long> days = new TreeMap<>(DAY_ORDER);
+
+        void add(Counter counter, long delta) {
+            counters.merge(counter, delta, Long::sum);
+        }
+
+        void add(DayCounter day, long delta) {
+            days.merge(day, delta, Long::sum);
+        }
+    }
+
+    /** One source's counters for a user. {@code daily} covers the requested window, oldest first. */
+    public record SourceStats(
+            long total,
+            Map<String, Long> byCategory,
+            Map<String, Long> byPriority,
+            Map<String, Long> byStatus,
+            Map<LocalDate, Long> daily) {}
+
+    /** {@code email} counts deliveries by notification type (as category) and status. */
+    public record UserStats(UUID userId, SourceStats app, SourceStats email) {}
+
+    private final NotificationStatRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private UUID reconcileCursor = MIN_UUID;
+
+    @Value("${notification.stats.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${notification.stats.reconcile.users-per-run:500}")
+    private int usersPerRun;
+
+    public NotificationStatsService(NotificationStatRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void appCreated(AppNotification n) {
+        if (n.getUserId() == null) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        deltas.add(appCounter(n, n.getStatus()), 1);
+        deltas.add(day(n.getUserId(), NotificationStat.Source.APP, n.getCreatedAt()), 1);
+        apply(deltas);
+    }
+
+    /** Call with the notification as it was before it was marked read. */
+    public void appRead(AppNotification n) {
+        if (n.getUserId() == null || n.getStatus() == AppNotification.NotificationStatus.READ) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        deltas.add(appCounter(n, n.getStatus()), -1);
+        deltas.add(appCounter(n, AppNotification.NotificationStatus.READ), 1);
+        apply(deltas);
+    }
+
+    public void appDeleted(AppNotification n) {
+        if (n.getUserId() == null) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        deltas.add(appCounter(n, n.getStatus()), -1);
+        deltas.add(day(n.getUserId(), NotificationStat.Source.APP, n.getCreatedAt()), -1);
+        apply(deltas);
+    }
+
+    /**
+     * A repeat folded into an unread row, which takes the repeat's priority and creation time; the
+     * row count is unchanged, but it can move between priorities and days.
+     */
+    public void appCollapsed(AppNotification previous, AppNotification current) {
+        if (current.getUserId() == null) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        deltas.add(appCounter(previous, previous.getStatus()), -1);
+        deltas.add(day(previous.getUserId(), NotificationStat.Source.APP, previous.getCreatedAt()), -1);
+        deltas.add(appCounter(current, current.getStatus()), 1);
+        deltas.add(day(current.getUserId(), NotificationStat.Source.APP, current.getCreatedAt()), 1);
+        apply(deltas);
+    }
+
+    public void deliveriesRecorded(List<NotificationRecord> records) {
+        Deltas deltas = new Deltas();
+        for (NotificationRecord r : records) {
+            if (r.getUserId() != null) {
+                deltas.add(deliveryCounter(r, r.getStatus()), 1);
+                deltas.add(day(r.getUserId(), NotificationStat.Source.EMAIL, r.getCreatedAt()), 1);
+            }
+        }
+        apply(deltas);
+    }
+
+    public void deliveriesChangedStatus(List<NotificationRecord> records, String from, String to) {
+        Deltas deltas = new Deltas();
+        for (NotificationRecord r : records) {
+            if (r.getUserId() != null) {
+                deltas.add(deliveryCounter(r, from), -1);
+                deltas.add(deliveryCounter(r, to), 1);
+            }
+        }
+        apply(deltas);
+    }
+
+    private static Counter appCounter(AppNotification n, AppNotification.NotificationStatus status) {
+        return new Counter(
+                n.getUserId(),
+                NotificationStat.Source.APP,
+                n.getCategory() != null ? n.getCategory() : "",
+                n.getPriority() != null ? n.getPriority().name() : "",
+                status != null ? status.name() : AppNotification.NotificationStatus.UNREAD.name());
+    }
+
+    private static Counter deliveryCounter(NotificationRecord r, String status) {
+        return new Counter(
+                r.getUserId(),
+                NotificationStat.Source.EMAIL,
+                r.getType() != null ? r.getType() : "",
+                "",
+                status != null ? status : "");
+    }
+
+    private static DayCounter day(UUID userId, NotificationStat.Source source, Instant createdAt) {
+        Instant at = createdAt != null ? createdAt : Instant.now();
+        return new DayCounter(userId, source, LocalDate.ofInstant(at, ZoneOffset.UTC));
+    }
+
+    /** Merges into the current transaction's deltas, or writes them now when there is none. */
+    private void apply(Deltas deltas) {
+        if (deltas.counters.isEmpty() && deltas.days.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> write(deltas));
+            return;
+        }
+        Deltas pending = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Deltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            Deltas bound = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NotificationStatsService.this);
+                }
+            });
+        }
+        Deltas target = pending;
+        deltas.counters.forEach(target::add);
+        deltas.days.forEach(target::add);
+    }
+
+    private void write(Deltas deltas) {
+        TreeSet<UUID> users = new TreeSet<>();
+        deltas.counters.keySet().forEach(c -> users.add(c.userId()));
+        deltas.days.keySet().forEach(d -> users.add(d.userId()));
+        users.forEach(repository::lockShared);
+        deltas.counters.forEach((c, delta) -> {
+            if (delta != 0) {
+                repository.add(c.userId(), c.source().name(), c.category(), c.priority(), c.status(), delta);
+            }
+        });
+        deltas.days.forEach((d, delta) -> {
+            if (delta != 0) {
+                repository.addDaily(d.userId(), d.source().name(), d.day(), delta);
+            }
+        });
+    }
+
+    /** A user's counters, with daily counts for the last {@code days} days (UTC, today included). */
+    @Transactional(readOnly = true)
+    public UserStats stats(UUID userId, int days) {
+        LocalDate since = LocalDate.now(ZoneOffset.UTC).minusDays(days - 1L);
+        List<NotificationStat> counters = repository.findByUser(userId);
+        List<NotificationStatRepository.DailyCount> daily = repository.findDaily(userId, since);
+        return new UserStats(
+                userId,
+                summarize(NotificationStat.Source.APP, counters, daily, since, days),
+                summarize(NotificationStat.Source.EMAIL, counters, daily, since, days));
+    }
+
+    static SourceStats summarize(
+            NotificationStat.Source source,
+            List<NotificationStat> counters,
+            List<NotificationStatRepository.DailyCount> daily,
+            LocalDate since,
+            int days) {
+        long total = 0;
+        Map<String, Long> byCategory = new TreeMap<>();
+        Map<String, Long> byPriority = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        for (NotificationStat stat : counters) {
+            NotificationStat.Key key = stat.getKey();
+            // Zero rows are left behind by deletes; negative ones by drift awaiting reconciliation
+            if (key.getSource() != source || stat.getTotal() <= 0) {
+                continue;
+            }
+            total += stat.getTotal();
+            byCategory.merge(key.getCategory(), stat.getTotal(), Long::sum);
+            if (!key.getPriority().isEmpty()) {
+                byPriority.merge(key.getPriority(), stat.getTotal(), Long::sum);
+            }
+            byStatus.merge(key.getStatus(), stat.getTotal(), Long::sum);
+        }
+        Map<LocalDate, Long> perDay = new LinkedHashMap<>();
+        for (int i = 0; i < days; i++) {
+            perDay.put(since.plusDays(i), 0L);
+        }
+        for (NotificationStatRepository.DailyCount day : daily) {
+            if (source.name().equals(day.getSource()) && perDay.containsKey(day.getDay())) {
+                perDay.put(day.getDay(), Math.max(0, day.getTotal()));
+            }
+        }
+        return new SourceStats(total, byCategory, byPriority, byStatus, perDay);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${notification.stats.reconcile.interval-ms:3600000}",
+            initialDelayString = "${notification.stats.reconcile.initial-delay-ms:120000}")
+    public void reconcileNextUsers() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<UUID> users = nextUsers(reconcileCursor, usersPerRun);
+        int rebuilt = 0;
+        for (UUID userId : users) {
+            try {
+                reconcile(userId);
+                rebuilt++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile stats for user {}: {}", userId, e.getMessage());
+            }
+        }
+        // Wrap around once every user has been visited
+        reconcileCursor = users.size() < usersPerRun ? MIN_UUID : users.get(users.size() - 1);
+        if (rebuilt > 0) {
+            log.info("Reconciled stats for {} users in {} ms", rebuilt, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private List<UUID> nextUsers(UUID after, int limit) {
+        TreeSet<UUID> users = new TreeSet<>(DB_ORDER);
+        users.addAll(repository.appUsersAfter(after, limit));
+        users.addAll(repository.deliveryUsersAfter(after, limit));
+        users.addAll(repository.statUsersAfter(after, limit));
+        List<UUID> next = new ArrayList<>(limit);
+        for (UUID user : users) {
+            if (next.size() == limit) {
+                break;
+            }
+            next.add(user);
+        }
+        return next;
+    }
+
+    /** Rebuilds one user's counters from the source tables. */
+    public void reconcile(UUID userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.lockExclusive(userId);
+            repository.deleteByUser(userId);
+            repository.deleteDailyByUser(userId);
+            repository.rebuild(userId);
+            repository.rebuildDaily(userId);
+        });
+    }
+}
@@ -0,0 +1,268 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest.NotificationType;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * How each notification type is delivered: the email subject and template, the subject recorded in
+ * the delivery history, and the in-app notification's category, priority, action and title/message
+ * formatters. Built once at startup; {@link #find} is a single hash lookup and never throws, so
+ * unknown types cost nothing more than a null check.
+ *
+ * <p>Supporting a new type means adding its enum constant and one {@link #register} call here.
+ */
+@Component
+public class NotificationTypeRegistry {
+
+    private static final String PROJECTS = "/interface/projects";
+    private static final String ACCOUNT = "/interface/account";
+
+    private final Map<NotificationType, Definition> byType = new EnumMap<>(NotificationType.class);
+    private final Map<String, Definition> byName = new HashMap<>();
+
+    public NotificationTypeRegistry(@Value("${app.name:ScholarAI}") String appName) {
+        register(new Definition(
+                NotificationType.WELCOME_EMAIL,
+                "Welcome to " + appName + "!",
+                "Welcome to " + appName,
+                "welcome-email",
+                "welcome_email",
+                AppNotification.NotificationPriority.LOW,
+                PROJECTS,
+                "Get Started",
+                fixed("🎉 Welcome to ScholarAI!"),
+                fixed("Your account has been created successfully. Start exploring research papers.")));
+        register(new Definition(
+                NotificationType.PASSWORD_RESET,
+                "Password Reset - " + appName,
+                "Password Reset",
+                "password-reset-email",
+                "password_reset",
+                AppNotification.NotificationPriority.HIGH,
+                ACCOUNT,
+                "Update Password",
+                fixed("🔐 Password Reset Request"),
+                fixed("A password reset request was received for your account.")));
+        register(new Definition(
+                NotificationType.EMAIL_VERIFICATION,
+                "Verify Your Email - " + appName,
+                "Verify Your Email",
+                "email-verification",
+                "email_verification",
+                AppNotification.NotificationPriority.MEDIUM,
+                ACCOUNT,
+                "Verify Email",
+                fixed("✉️ Email Verification Required"),
+                fixed("Please verify your email address to complete your account setup.")));
+        // No email or in-app content yet; accepted so preferences and scheduling still apply
+        register(new Definition(NotificationType.ACCOUNT_UPDATE, null, null, null, null, null, null, null, null, null));
+        register(new Definition(
+                NotificationType.WEB_SEARCH_COMPLETED,
+                "Your Search Results Are Ready",
+                "Web Search Completed",
+                "web-search-completed",
+                "web_search_completed",
+                AppNotification.NotificationPriority.MEDIUM,
+                PROJECTS,
+                "View Results",
+                NotificationTypeRegistry::webSearchTitle,
+                NotificationTypeRegistry::webSearchMessage));
+        register(new Definition(
+                NotificationType.SUMMARIZATION_COMPLETED,
+                "Your Summary Is Ready",
+                "Summarization Completed",
+                "summarization-completed",
+                "summarization_completed",
+                AppNotification.NotificationPriority.MEDIUM,
+                PROJECTS,
+                "View Summary",
+                NotificationTypeRegistry::summaryTitle,
+                NotificationTypeRegistry::summaryMessage));
+        register(new Definition(
+                NotificationType.PROJECT_DELETED,
+                "Project Deleted - " + appName,
+                "Project Deleted",
+                "project-deleted",
+                "project_deleted",
+                AppNotification.NotificationPriority.HIGH,
+                PROJECTS,
+                "View Projects",
+                NotificationTypeRegistry::projectDeletedTitle,
+                NotificationTypeRegistry::projectDeletedMessage));
+        register(new Definition(
+                NotificationType.GAP_ANALYSIS_COMPLETED,
+                "Gap Analysis Complete",
+                "Gap Analysis Completed",
+                "gap-analysis-completed",
+                "gap_analysis_completed",
+                AppNotification.NotificationPriority.MEDIUM,
+                PROJECTS,
+                "View Analysis",
+                NotificationTypeRegistry::gapAnalysisTitle,
+                NotificationTypeRegistry::gapAnalysisMessage));
+    }
+
+    /** Returns the definition for a type name as sent by producers, or null if there is none. */
+    public Definition find(String typeName) {
+        return typeName == null ? null : byName.get(typeName);
+    }
+
+    public Definition get(NotificationType type) {
+        return byType.get(type);
+    }
+
+    public Collection<Definition> all() {
+        return List.copyOf(byType.values());
+    }
+
+    private void register(Definition definition) {
+        if (byType.putIfAbsent(definition.type(), definition) != null) {
+            throw new IllegalStateException("Duplicate notification type definition: " + definition.type());
+        }
+        byName.put(definition.type().name(), definition);
+    }
+
+    /**
+     * One notification type. A null {@code template} means no email is sent; a null {@code title}
+     * means no in-app notification is created.
+     */
+    public record Definition(
+            NotificationType type,
+            String subject,
+            String recordSubject,
+            String template,
+            String category,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String actionText,
+            Function<Map<String, Object>, String> title,
+            Function<Map<String, Object>, String> message) {
+
+        public boolean sendsEmail() {
+            return template != null;
+        }
+
+        public boolean createsAppNotification() {
+            return title != null;
+        }
+    }
+
+    private static Function<Map<String, Object>, String> fixed(String text) {
+        return data -> text;
+    }
+
+    static String webSearchTitle(Map<String, Object> data) {
+        final String project = extractString(data, "projectName", "project_name", "name");
+        final Integer count = extractInt(data, "papersCount", "papers_count");
+        StringBuilder title = new StringBuilder(64).append("🔍 Research Search Complete");
+        if (project != null) {
+            title.append(" • ").append(project);
+        }
+        if (count != null) {
+            title.append(" (").append(count.intValue()).append(" papers)");
+        }
+        return title.toString();
+    }
+
+    static String webSearchMessage(Map<String, Object> data) {
+        final String project = extractString(data, "projectName", "project_name", "name");
+        final String query = extractString(data, "searchParams", "search_params", "query");
+        final Integer count = extractInt(data, "papersCount", "papers_count");
+        final int papers = count != null ? count : 0;
+        if (project != null && query != null) {
+            return "Web search completed for \"" + project + "\". Found " + papers + " papers matching \"" + query
+                    + "\".";
+        }
+        return "Academic paper search completed. Found " + papers + " papers.";
+    }
+
+    static String summaryTitle(Map<String, Object> data) {
+        final String title = extractString(data, "paperTitle", "paper_title", "title");
+        return title != null ? "📄 AI Summary Ready • " + truncate(title, 40) : "📄 AI Summary Ready";
+    }
+
+    static String summaryMessage(Map<String, Object> data) {
+        final String title = extractString(data, "paperTitle", "paper_title", "title");
+        final String conf = extractString(data, "summaryConfidence", "summary_confidence");
+        return "AI-powered summary generated for \"" + (title != null ? title : "paper") + "\""
+                + (conf != null ? " with " + conf + " confidence." : ".");
+    }
+
+    static String projectDeletedTitle(Map<String, Object> data) {
+        final String name = extractString(data, "projectName", "project_name", "name");
+        return name != null ? "🗑️ Project Deleted • " + name : "🗑️ Project Deleted";
+    }
+
+    static String projectDeletedMessage(Map<String, Object> data) {
+        final String name = extractString(data, "projectName", "project_name", "name");
+        final Integer papers = extractInt(data, "papersCount", "papers_count");
+        final Integer notes = extractInt(data, "notesCount", "notes_count");
+        return "Project \"" + (name != null ? name : "Unnamed Project") + "\" deleted. Removed "
+                + (papers != null ? papers.intValue() : 0) + " papers"
+                + (notes != null ? ", " + notes.intValue() + " notes" : "") + ".";
+    }
+
+    static String gapAnalysisTitle(Map<String, Object> data) {
+        final String title = extractString(data, "paperTitle", "paper_title", "title");
+        final Integer gaps = extractInt(data, "gapsCount", "gaps_count", "totalGaps", "total_gaps");
+        StringBuilder text = new StringBuilder(64).append("🎯 Gap Analysis Complete");
+        if (title != null) {
+            text.append(" • ").append(truncate(title, 30));
+        }
+        if (gaps != null) {
+            text.append(" (").append(gaps.intValue()).append(" gaps)");
+        }
+        return text.toString();
+    }
+
+    static String gapAnalysisMessage(Map<String, Object> data) {
+        final Integer gaps = extractInt(data, "gapsCount", "gaps_count", "totalGaps", "total_gaps");
+        return "Gap analysis completed. Identified " + (gaps != null ? gaps.intValue() : 0)
+                + " research opportunities.";
+    }
+
+    static String extractString(Map<String, Object> map, String... keys) {
+        if (map == null) return null;
+        for (String k : keys) {
+            Object v = map.get(k);
+            if (v instanceof String s && !s.isBlank()) return s;
+        }
+        return null;
+    }
+
+    static Integer extractInt(Map<String, Object> map, String... keys) {
+        if (map == null) return null;
+        for (String k : keys) {
+            Object v = map.get(k);
+            if (v instanceof Number n) return n.intValue();
+            if (v instanceof String s && isInteger(s)) return Integer.parseInt(s);
+        }
+        return null;
+    }
+
+    /** Checks first so non-numeric strings don't cost a NumberFormatException. */
+    private static boolean isInteger(String s) {
+        int length = s.length();
+        if (length == 0 || length > 11) return false;
+        int start = s.charAt(0) == '-' || s.charAt(0) == '+' ? 1 : 0;
+        if (start == length) return false;
+        for (int i = start; i < length; i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        if (length < 10) return true;
+        long value = Long.parseLong(s);
+        return value == (int) value;
+    }
+
+    private static String truncate(String s, int max) {
+        return s.length() > max ? s.substring(0, max) + "..." : s;
+    }
+}
@@ -0,0 +1,173 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.NotificationPayload;
+import org.solace.scholar_ai.notification_service.repository.NotificationPayloadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Content-addressed storage for template data and metadata JSON.
+ *
+ * <p>Values are serialized with sorted keys, so equal maps get the same SHA-256, and each distinct
+ * payload is stored once. Payloads over the compression threshold are gzipped. Recently seen hashes
+ * are cached, so the common case of a repeated payload costs no database write at all.
+ */
+@Service
+@Slf4j
+public class PayloadStore {
+
+    private final NotificationPayloadRepository repository;
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final Cache<String, String> recent;
+
+    @Value("${notification.payload.compress-threshold-bytes:1024}")
+    private int compressThresholdBytes;
+
+    public PayloadStore(
+            NotificationPayloadRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${notification.payload.cache.max-entries:10000}") long maxEntries) {
+        this.repository = repository;
+        this.recent =
+                Caffeine.newBuilder().maximumSize(maxEntries).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "notificationPayloads");
+    }
+
+    /** A stored payload's key and its canonical JSON. */
+    public record Stored(String hash, String json) {}
+
+    /** Stores {@code value} as JSON if not already present and returns its hash; null for null. */
+    @Transactional
+    public String put(Object value) {
+        Stored stored = store(value);
+        return stored != null ? stored.hash() : null;
+    }
+
+    /** Like {@link #put} but also returns the JSON, for callers that echo it back. */
+    @Transactional
+    public Stored store(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+            String hash = sha256(raw);
+            if (recent.getIfPresent(hash) == null) {
+                boolean compress = raw.length > compressThresholdBytes;
+                repository.insertIfAbsent(
+                        hash,
+                        (compress ? NotificationPayload.Encoding.GZIP : NotificationPayload.Encoding.RAW).name(),
+                        compress ? gzip(raw) : raw,
+                        raw.length,
+                        Instant.now());
+                rememberAfterCommit(hash, json);
+            }
+            return new Stored(hash, json);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store notification payload", e);
+        }
+    }
+
+    /** The JSON stored under {@code hash}, or null if the hash is null or unknown. */
+    @Transactional(readOnly = true)
+    public String get(String hash) {
+        if (hash == null) {
+            return null;
+        }
+        return getAll(Set.of(hash)).get(hash);
+    }
+
+    /** Resolves many hashes with at most one query for the ones not cached. */
+    @Transactional(readOnly = true)
+    public Map<String, String> getAll(Collection<String> hashes) {
+        Map<String, String> resolved = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String hash : hashes) {
+            if (hash == null) {
+                continue;
+            }
+            String json = recent.getIfPresent(hash);
+            if (json != null) {
+                resolved.put(hash, json);
+            } else {
+                missing.add(hash);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (NotificationPayload payload : repository.findAllById(missing)) {
+                String json = decode(payload);
+                recent.put(payload.getHash(), json);
+                resolved.put(payload.getHash(), json);
+            }
+        }
+        return resolved;
+    }
+
+    /** Caching before commit could make a rolled-back insert look stored to later writers. */
+    private void rememberAfterCommit(String hash, String json) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recent.put(hash, json);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.put(hash, json);
+            }
+        });
+    }
+
+    private static String decode(NotificationPayload payload) {
+        if (payload.getEncoding() == NotificationPayload.Encoding.RAW) {
+            return new String(payload.getContent(), StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.getContent()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Corrupt notification payload " + payload.getHash(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    static String sha256(byte[] raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
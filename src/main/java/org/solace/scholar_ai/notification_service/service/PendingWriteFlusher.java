@@ -0,0 +1,15 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.time.Duration;
+
+/**
+ * Implemented by components that buffer writes in memory. {@link NotificationDrainCoordinator}
+ * calls every flusher once consumption has stopped during shutdown.
+ */
+public interface PendingWriteFlusher {
+
+    /**
+     * Writes out everything buffered so far, giving up after {@code timeout}.
+     */
+    void flushPending(Duration timeout);
+}
@@ -0,0 +1,90 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * A template rendered once with placeholder tokens in place of per-recipient fields, split into
+ * static segments and slots. Producing a recipient's HTML is then a string join with the escaped
+ * values, with no template evaluation.
+ *
+ * <p>Placeholders survive rendering only where a template prints the variable as text or as an
+ * attribute value. Variables that a template uses in conditions, loops or formatting must come from
+ * the shared data.
+ */
+public final class PrerenderedTemplate {
+
+    private static final String TOKEN_PREFIX = "PRTSLOT";
+    private static final Pattern TOKEN = Pattern.compile(TOKEN_PREFIX + "(\\d+)X");
+
+    private final String[] segments;
+    private final String[] slots;
+
+    private PrerenderedTemplate(String[] segments, String[] slots) {
+        this.segments = segments;
+        this.slots = slots;
+    }
+
+    /**
+     * Placeholder values to render in place of {@code keys}. The tokens are alphanumeric so that
+     * HTML escaping during rendering leaves them intact.
+     */
+    public static Map<String, Object> placeholders(List<String> keys) {
+        Map<String, Object> placeholders = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            placeholders.put(keys.get(i), TOKEN_PREFIX + i + "X");
+        }
+        return placeholders;
+    }
+
+    /** Splits HTML rendered with {@link #placeholders(List)} for the same {@code keys}. */
+    public static PrerenderedTemplate compile(String renderedHtml, List<String> keys) {
+        List<String> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(renderedHtml);
+        int last = 0;
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(1));
+            if (index >= keys.size()) {
+                continue;
+            }
+            segments.add(renderedHtml.substring(last, matcher.start()));
+            slots.add(keys.get(index));
+            last = matcher.end();
+        }
+        segments.add(renderedHtml.substring(last));
+        return new PrerenderedTemplate(segments.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    /** Keys that actually appear in the output; overrides for other keys have no effect. */
+    public Collection<String> slotKeys() {
+        return List.of(slots);
+    }
+
+    /** Joins the segments with HTML-escaped {@code values}; missing keys render as empty. */
+    public String render(Map<String, ?> values) {
+        StringBuilder html = new StringBuilder(estimateLength());
+        for (int i = 0; i < slots.length; i++) {
+            html.append(segments[i]);
+            Object value = values.get(slots[i]);
+            if (value != null) {
+                html.append(HtmlUtils.htmlEscape(value.toString()));
+            }
+        }
+        return html.append(segments[slots.length]).toString();
+    }
+
+    private int estimateLength() {
+        int length = 64 * slots.length;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        return length;
+    }
+}
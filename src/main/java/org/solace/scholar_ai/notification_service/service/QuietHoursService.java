@@ -0,0 +1,115 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.solace.scholar_ai.notification_service.repository.QuietHoursRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-user quiet-hours windows in the user's own time zone. Looked up per message through a cache,
+ * like {@link NotificationPreferenceService}.
+ */
+@Service
+@Slf4j
+public class QuietHoursService {
+
+    private final QuietHoursRepository repository;
+    private final LoadingCache<UUID, Optional<QuietHours>> cache;
+
+    public QuietHoursService(
+            QuietHoursRepository repository,
+            @Value("${notification.quiet-hours.cache.max-users:100000}") long maxUsers,
+            @Value("${notification.quiet-hours.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(repository::findById);
+    }
+
+    /**
+     * Returns when the user's quiet window that contains {@code at} ends, or null if {@code at} is
+     * outside quiet hours (or the user has none).
+     */
+    public Instant quietUntil(UUID userId, Instant at) {
+        if (userId == null) {
+            return null;
+        }
+        return cache.get(userId).map(q -> windowEnd(q, at)).orElse(null);
+    }
+
+    static Instant windowEnd(QuietHours quietHours, Instant at) {
+        ZonedDateTime local = at.atZone(ZoneId.of(quietHours.getZoneId()));
+        LocalTime time = local.toLocalTime();
+        LocalTime start = quietHours.getStartTime();
+        LocalTime end = quietHours.getEndTime();
+        boolean quiet = start.isBefore(end)
+                ? !time.isBefore(start) && time.isBefore(end)
+                : !time.isBefore(start) || time.isBefore(end);
+        if (!quiet) {
+            return null;
+        }
+        ZonedDateTime endAt = local.with(end);
+        if (!endAt.isAfter(local)) {
+            endAt = endAt.plusDays(1);
+        }
+        return endAt.toInstant();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<QuietHours> get(UUID userId) {
+        return repository.findById(userId);
+    }
+
+    @Transactional
+    public QuietHours update(UUID userId, LocalTime start, LocalTime end, String zoneId) {
+        if (start.equals(end)) {
+            throw new IllegalArgumentException("Quiet hours start and end must differ");
+        }
+        try {
+            ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + zoneId, e);
+        }
+        QuietHours quietHours = repository
+                .findById(userId)
+                .orElseGet(() -> QuietHours.builder().userId(userId).build());
+        quietHours.setStartTime(start);
+        quietHours.setEndTime(end);
+        quietHours.setZoneId(zoneId);
+        QuietHours saved = repository.save(quietHours);
+        invalidateAfterCommit(userId);
+        log.info("Set quiet hours {}-{} ({}) for user {}", start, end, zoneId, userId);
+        return saved;
+    }
+
+    @Transactional
+    public void delete(UUID userId) {
+        repository.findById(userId).ifPresent(repository::delete);
+        invalidateAfterCommit(userId);
+        log.info("Removed quiet hours for user {}", userId);
+    }
+
+    private void invalidateAfterCommit(UUID userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.config.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they change their own notifications,
+ * so a mark-read is not undone by a replica that has not replayed it yet. A no-op unless replica
+ * routing is enabled.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final boolean enabled;
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(
+            @Value("${notification.datasource.replicas.enabled:false}") boolean enabled,
+            @Value("${notification.datasource.replicas.read-your-writes-ms:5000}") long windowMs) {
+        this.enabled = enabled;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .build();
+    }
+
+    public void recordWrite(UUID userId) {
+        if (enabled && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /** Call at the start of a read-only transaction, before its first query. */
+    public void routeReads(UUID userId) {
+        if (enabled && userId != null && recentWriters.getIfPresent(userId) != null) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.ScheduledNotification;
+import org.solace.scholar_ai.notification_service.repository.ScheduledNotificationRepository;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Defers notifications that carry a future {@code deliverAt} or arrive during the user's quiet
+ * hours.
+ *
+ * <p>Deferred messages are persisted first and then put on an in-memory {@link HashedTimingWheel}
+ * holding only id and due time. When a wheel bucket fires, the due batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} (so two instances never dispatch the same row), republished to the
+ * notification exchange and marked dispatched in one transaction. The publish cannot be rolled
+ * back: if the commit fails after it, the row stays pending and is sent again, so dispatch is
+ * at-least-once. On startup the wheel is rebuilt from the pending rows, and a periodic sweep picks
+ * up overdue rows whose instance went away.
+ * Password reset and email verification are time-sensitive and never deferred.
+ */
+@Service
+@Slf4j
+public class ScheduledDeliveryService {
+
+    private static final Set<NotificationRequest.NotificationType> TIME_SENSITIVE = EnumSet.of(
+            NotificationRequest.NotificationType.PASSWORD_RESET,
+            NotificationRequest.NotificationType.EMAIL_VERIFICATION);
+
+    private final ScheduledNotificationRepository repository;
+    private final QuietHoursService quietHoursService;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final HashedTimingWheel<UUID> wheel;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "scheduled-notification-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${rabbitmq.notification.exchange.name}")
+    private String exchangeName;
+
+    @Value("${notification.scheduling.routing-key:notification.scheduled}")
+    private String routingKey;
+
+    @Value("${notification.scheduling.min-deferral-ms:1000}")
+    private long minDeferralMs;
+
+    @Value("${notification.scheduling.dispatch-batch-size:500}")
+    private int dispatchBatchSize;
+
+    public ScheduledDeliveryService(
+            ScheduledNotificationRepository repository,
+            QuietHoursService quietHoursService,
+            RabbitTemplate rabbitTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notification.scheduling.tick-ms:1000}") long tickMs,
+            @Value("${notification.scheduling.wheel-size:512}") int wheelSize) {
+        this.repository = repository;
+        this.quietHoursService = quietHoursService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.wheel = new HashedTimingWheel<>(
+                "scheduled-notification-wheel", tickMs, TimeUnit.MILLISECONDS, wheelSize, this::onDue);
+        Gauge.builder("notification.scheduled.pending", wheel, HashedTimingWheel::size)
+                .description("Deferred notifications held on this instance's timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Persists and schedules {@code request} if it should not go out now. Returns true when the
+     * message was deferred and the caller must not process it further.
+     */
+    public boolean deferIfNeeded(NotificationRequest request, NotificationRequest.NotificationType type) {
+        if (TIME_SENSITIVE.contains(type)) {
+            return false;
+        }
+        final Instant now = Instant.now();
+        Instant dueAt = null;
+        ScheduledNotification.Reason reason = null;
+        if (request.getDeliverAt() != null && request.getDeliverAt().isAfter(now.plusMillis(minDeferralMs))) {
+            dueAt = request.getDeliverAt();
+            reason = ScheduledNotification.Reason.REQUESTED;
+        }
+        Instant quietUntil = quietHoursService.quietUntil(request.getUserId(), dueAt != null ? dueAt : now);
+        if (quietUntil != null) {
+            dueAt = quietUntil;
+            reason = ScheduledNotification.Reason.QUIET_HOURS;
+        }
+        if (dueAt == null) {
+            return false;
+        }
+
+        request.setDeliverAt(dueAt);
+        try {
+            ScheduledNotification saved = repository.save(ScheduledNotification.builder()
+                    .userId(request.getUserId())
+                    .notificationType(type.name())
+                    .payloadJson(objectMapper.writeValueAsString(request))
+                    .deliverAt(dueAt)
+                    .reason(reason)
+                    .createdAt(now)
+                    .build());
+            wheel.schedule(saved.getId(), dueAt.toEpochMilli());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to schedule notification", e);
+        }
+        meterRegistry
+                .counter("notification.deferred", "reason", reason.name().toLowerCase())
+                .increment();
+        log.info("Deferred {} for user {} until {} ({})", type, request.getUserId(), dueAt, reason);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPending() {
+        wheel.start();
+        int recovered = transactionTemplate.execute(status -> {
+            try (Stream<ScheduledNotificationRepository.PendingEntry> pending =
+                    repository.streamByStatus(ScheduledNotification.Status.PENDING)) {
+                int[] count = {0};
+                pending.forEach(entry -> {
+                    wheel.schedule(entry.getId(), entry.getDeliverAt().toEpochMilli());
+                    count[0]++;
+                });
+                return count[0];
+            }
+        });
+        log.info("Recovered {} pending scheduled notifications onto the timing wheel", recovered);
+    }
+
+    /** Dispatches rows that are overdue but were never fired, e.g. held by an instance that died. */
+    @Scheduled(
+            initialDelayString = "${notification.scheduling.sweep-interval-ms:60000}",
+            fixedDelayString = "${notification.scheduling.sweep-interval-ms:60000}")
+    public void sweepOverdue() {
+        Instant before = Instant.now().minus(Duration.ofMinutes(1));
+        List<UUID> overdue = repository
+                .findByStatusAndDeliverAtBefore(
+                        ScheduledNotification.Status.PENDING, before, PageRequest.of(0, dispatchBatchSize))
+                .stream()
+                .map(ScheduledNotificationRepository.PendingEntry::getId)
+                .toList();
+        if (!overdue.isEmpty()) {
+            log.warn("Sweeping {} overdue scheduled notifications", overdue.size());
+            dispatch(overdue);
+        }
+    }
+
+    private void onDue(List<UUID> ids) {
+        for (int i = 0; i < ids.size(); i += dispatchBatchSize) {
+            List<UUID> batch = new ArrayList<>(ids.subList(i, Math.min(ids.size(), i + dispatchBatchSize)));
+            dispatcher.execute(() -> dispatch(batch));
+        }
+    }
+
+    /**
+     * Publishes the claimed rows and marks them dispatched. A commit failure after a publish leaves
+     * the row pending for the sweep, which sends it again.
+     */
+    private void dispatch(List<UUID> ids) {
+        try {
+            Integer sent = transactionTemplate.execute(status -> {
+                List<ScheduledNotification> claimed = repository.lockPending(ids);
+                List<UUID> dispatched = new ArrayList<>(claimed.size());
+                for (ScheduledNotification scheduled : claimed) {
+                    try {
+                        NotificationRequest request =
+                                objectMapper.readValue(scheduled.getPayloadJson(), NotificationRequest.class);
+                        request.setEnqueuedAt(Instant.now());
+                        rabbitTemplate.convertAndSend(exchangeName, routingKey, request);
+                        dispatched.add(scheduled.getId());
+                    } catch (Exception e) {
+                        log.error("Failed to dispatch scheduled notification {}", scheduled.getId(), e);
+                    }
+                }
+                if (!dispatched.isEmpty()) {
+                    repository.updateStatus(dispatched, ScheduledNotification.Status.DISPATCHED, Instant.now());
+                }
+                return dispatched.size();
+            });
+            meterRegistry.counter("notification.scheduled.dispatched").increment(sent != null ? sent : 0);
+            log.debug("Dispatched {} of {} due scheduled notifications", sent, ids.size());
+        } catch (Exception e) {
+            log.error("Failed to dispatch {} scheduled notifications; the sweep will retry", ids.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        dispatcher.shutdown();
+    }
+}
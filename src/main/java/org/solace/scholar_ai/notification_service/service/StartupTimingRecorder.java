@@ -0,0 +1,41 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long after JVM start the first notification was consumed. Exported as
+ * {@code notification.startup.first.message} next to Boot's {@code application.ready.time}, and
+ * logged once so {@code scripts/startup-benchmark.sh} can pick it up.
+ */
+@Component
+@Slf4j
+public class StartupTimingRecorder {
+
+    private final AtomicLong firstMessageMillis = new AtomicLong(-1);
+
+    public StartupTimingRecorder(MeterRegistry meterRegistry) {
+        TimeGauge.builder(
+                        "notification.startup.first.message",
+                        firstMessageMillis,
+                        TimeUnit.MILLISECONDS,
+                        AtomicLong::get)
+                .description("Time from JVM start until the first notification was consumed")
+                .register(meterRegistry);
+    }
+
+    public void markMessageConsumed() {
+        if (firstMessageMillis.get() >= 0) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstMessageMillis.compareAndSet(-1, uptime)) {
+            log.info("First notification consumed {} ms after JVM start", uptime);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.internet.MimeMessage;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pays the first-request costs before real traffic arrives: Thymeleaf template parsing, Jackson
+ * serializer creation, Hibernate query plans, opening the DB and SMTP connections, and JIT
+ * compilation of the hot paths.
+ *
+ * <p>Runs as an {@link ApplicationRunner}. Boot reports readiness only after all runners return, so
+ * the instance stays out of rotation while this runs. The notification listener is created stopped
+ * and is started here once warm-up finishes or its budget is spent, whichever comes first. A failed
+ * step is logged and skipped; warm-up never keeps the instance from starting.
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    /** Covers the variables used across the email templates and the in-app builders. */
+    private static final Map<String, Object> SAMPLE_DATA = sampleData();
+
+    private final EmailService emailService;
+    private final NotificationConsumerService consumerService;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppNotificationRepository appNotificationRepository;
+    private final NotificationRecordRepository recordRepository;
+    private final PayloadStore payloadStore;
+    private final JavaMailSender mailSender;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+
+    @Value("${notification.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.warmup.budget-ms:20000}")
+    private long budgetMs;
+
+    @Value("${notification.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${notification.warmup.smtp:true}")
+    private boolean warmSmtp;
+
+    public StartupWarmup(
+            EmailService emailService,
+            NotificationConsumerService consumerService,
+            RabbitTemplate rabbitTemplate,
+            ObjectMapper objectMapper,
+            AppNotificationRepository appNotificationRepository,
+            NotificationRecordRepository recordRepository,
+            PayloadStore payloadStore,
+            JavaMailSender mailSender,
+            RabbitListenerEndpointRegistry listenerRegistry) {
+        this.emailService = emailService;
+        this.consumerService = consumerService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.appNotificationRepository = appNotificationRepository;
+        this.recordRepository = recordRepository;
+        this.payloadStore = payloadStore;
+        this.mailSender = mailSender;
+        this.listenerRegistry = listenerRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUpWithinBudget();
+        }
+        MessageListenerContainer listener =
+                listenerRegistry.getListenerContainer(NotificationConsumerService.LISTENER_ID);
+        if (listener != null) {
+            listener.start();
+            log.info("Notification listener started");
+        }
+    }
+
+    private void warmUpWithinBudget() {
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "startup-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Future<?> warmup = worker.submit(() -> warmUp(deadline));
+        try {
+            warmup.get(budgetMs, TimeUnit.MILLISECONDS);
+            log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            warmup.cancel(true);
+            log.warn("Warm-up budget of {} ms spent, continuing startup", budgetMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Warm-up failed, continuing startup", e);
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    private void warmUp(long deadline) {
+        // Connections first: they are slow, and warming the rest needs nothing from them
+        step("database", () -> {
+            UUID nobody = new UUID(0, 0);
+            appNotificationRepository.countByUserIdAndStatus(nobody, AppNotification.NotificationStatus.UNREAD);
+            appNotificationRepository.findByUserIdOrderByCreatedAtDesc(nobody);
+            recordRepository.findByUserIdOrderByCreatedAtDesc(nobody);
+            payloadStore.getAll(List.of("0".repeat(64)));
+        });
+        if (warmSmtp && mailSender instanceof JavaMailSenderImpl impl) {
+            step("smtp", impl::testConnection);
+        }
+
+        List<String> templates = new ArrayList<>();
+        step("template discovery", () -> {
+            for (Resource resource :
+                    new PathMatchingResourcePatternResolver().getResources("classpath:templates/*.html")) {
+                templates.add(resource.getFilename().replace(".html", ""));
+            }
+        });
+        NotificationRequest request = NotificationRequest.builder()
+                .notificationType(NotificationRequest.NotificationType.WEB_SEARCH_COMPLETED.name())
+                .recipientEmail("warmup@example.com")
+                .recipientName("Warm-up")
+                .timestamp(Instant.now())
+                .userId(new UUID(0, 0))
+                .templateData(SAMPLE_DATA)
+                .build();
+        AppNotification appNotification = AppNotification.builder()
+                .id(new UUID(0, 0))
+                .title("Warm-up")
+                .message("Warm-up")
+                .createdAt(Instant.now())
+                .build();
+
+        int rounds = 0;
+        while (rounds < iterations
+                && System.nanoTime() < deadline
+                && !Thread.currentThread().isInterrupted()) {
+            boolean first = rounds == 0;
+            for (String template : templates) {
+                step(first, "template " + template, () -> {
+                    String html = emailService.renderTemplate(template, SAMPLE_DATA);
+                    MimeMessage message = emailService.buildHtmlMessage("warmup@example.com", "Warm-up", html);
+                    message.writeTo(OutputStream.nullOutputStream());
+                });
+            }
+            step(first, "builders", () -> consumerService.warmUpBuilders(SAMPLE_DATA));
+            step(first, "serialization", () -> {
+                Message message = rabbitTemplate.getMessageConverter().toMessage(request, new MessageProperties());
+                message.getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+                rabbitTemplate.getMessageConverter().fromMessage(message);
+                objectMapper.writeValueAsBytes(request);
+                objectMapper.writeValueAsBytes(List.of(appNotification));
+            });
+            rounds++;
+        }
+        log.info("Warm-up ran {} rounds over {} templates", rounds, templates.size());
+    }
+
+    private void step(String name, WarmupStep step) {
+        step(true, name, step);
+    }
+
+    /** Runs a step; failures are logged on the first round only, to keep the log readable. */
+    private void step(boolean logFailure, String name, WarmupStep step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            if (logFailure) {
+                log.warn("Warm-up step '{}' failed: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+
+    private static Map<String, Object> sampleData() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("userName", "Warm-up User");
+        data.put("userEmail", "warmup@example.com");
+        data.put("toName", "Warm-up User");
+        data.put("toEmail", "warmup@example.com");
+        data.put("appUrl", "https://example.com");
+        data.put("supportEmail", "support@example.com");
+        data.put("projectName", "Warm-up Project");
+        data.put("paperTitle", "A study of notification delivery latency");
+        data.put("summaryConfidence", "high");
+        data.put("papersCount", 12);
+        data.put("notesCount", 3);
+        data.put("summariesCount", 4);
+        data.put("readingListItemsCount", 5);
+        data.put("gapAnalysesCount", 2);
+        data.put("gapsCount", 6);
+        data.put("totalGaps", 6);
+        data.put("validGaps", 4);
+        data.put("gapNames", List.of("Evaluation", "Datasets", "Reproducibility"));
+        data.put("searchTerms", List.of("retrieval", "summarization"));
+        data.put("searchParams", "retrieval summarization");
+        data.put("domain", "Computer Science");
+        data.put("batchSize", 20);
+        data.put("verificationCode", "000000");
+        data.put("resetCode", "000000");
+        data.put("correlationId", "warmup");
+        return Map.copyOf(data);
+    }
+}
@@ -0,0 +1,59 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter: refills at {@code ratePerSecond} up to {@code capacity} tokens, so it
+ * allows short bursts while holding the long-run rate. Thread-safe.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    public TokenBucket(double ratePerSecond, double capacity) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate must be positive and capacity at least 1");
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.tokens = capacity;
+    }
+
+    /** Takes a token if one is available. */
+    public boolean tryAcquire() {
+        return take() == 0;
+    }
+
+    /** Blocks until a token is available and takes it. */
+    public void acquire() throws InterruptedException {
+        long wait;
+        while ((wait = take()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /** Nanoseconds until the next token would be available without taking one; 0 if one is ready. */
+    public synchronized long nanosToNextToken() {
+        refill();
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    /** Takes a token and returns 0, or returns how long until one is available. */
+    private synchronized long take() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+    }
+}
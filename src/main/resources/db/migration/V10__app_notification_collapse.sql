@@ -0,0 +1,8 @@
+-- Repeated events for the same category and related item fold into the user's unread row with the
+-- same key instead of adding a row each
+ALTER TABLE app_notifications ADD COLUMN IF NOT EXISTS collapse_key VARCHAR(400);
+ALTER TABLE app_notifications ADD COLUMN IF NOT EXISTS collapsed_count INTEGER NOT NULL DEFAULT 1;
+
+-- Conflict target of the collapsing upsert; a read row no longer collapses, so the next event starts a new one
+CREATE UNIQUE INDEX IF NOT EXISTS idx_app_notifications_unread_collapse_key
+    ON app_notifications (user_id, collapse_key) WHERE status = 'UNREAD' AND collapse_key IS NOT NULL;
@@ -0,0 +1,22 @@
+-- Campaigns are queued and sent in the background; a retried submission finds its job by key
+CREATE TABLE IF NOT EXISTS email_campaign_jobs (
+    id              UUID PRIMARY KEY,
+    idempotency_key VARCHAR(128)                NOT NULL,
+    request_hash    VARCHAR(64)                 NOT NULL,
+    status          VARCHAR(16)                 NOT NULL,
+    template_name   VARCHAR(128)                NOT NULL,
+    subject         VARCHAR(255)                NOT NULL,
+    request_json    TEXT                        NOT NULL,
+    total           INTEGER                     NOT NULL,
+    processed       INTEGER                     NOT NULL,
+    sent            INTEGER                     NOT NULL,
+    failed          INTEGER                     NOT NULL,
+    failures_json   TEXT,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at      TIMESTAMP(6) WITH TIME ZONE,
+    heartbeat_at    TIMESTAMP(6) WITH TIME ZONE,
+    finished_at     TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_email_campaign_jobs_idempotency_key UNIQUE (idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_campaign_jobs_status_created ON email_campaign_jobs (status, created_at);
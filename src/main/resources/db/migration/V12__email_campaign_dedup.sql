@@ -0,0 +1,2 @@
+-- Submissions without an idempotency key look for an identical recent campaign
+CREATE INDEX IF NOT EXISTS idx_email_campaign_jobs_request_hash ON email_campaign_jobs (request_hash, created_at);
@@ -0,0 +1,43 @@
+-- Baseline schema matching the JPA entities. Written to be idempotent so it can
+-- be applied on databases that were created by hibernate ddl-auto=update.
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id              UUID PRIMARY KEY,
+    user_id         UUID,
+    recipient_email VARCHAR(255),
+    recipient_name  VARCHAR(255),
+    type            VARCHAR(64)              NOT NULL,
+    subject         VARCHAR(255),
+    template_name   VARCHAR(128),
+    template_data   TEXT,
+    status          VARCHAR(32),
+    error_message   TEXT,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    sent_at         TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created
+    ON notifications (user_id, created_at DESC);
+
+CREATE TABLE IF NOT EXISTS app_notifications (
+    id                 UUID PRIMARY KEY,
+    user_id            UUID                     NOT NULL,
+    type               VARCHAR(16)              NOT NULL,
+    category           VARCHAR(128),
+    title              VARCHAR(255),
+    message            TEXT,
+    priority           VARCHAR(16),
+    status             VARCHAR(16),
+    action_url         VARCHAR(255),
+    action_text        VARCHAR(64),
+    related_project_id VARCHAR(64),
+    related_paper_id   VARCHAR(64),
+    related_task_id    VARCHAR(64),
+    metadata_json      TEXT,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at         TIMESTAMP(6) WITH TIME ZONE,
+    read_at            TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_app_notifications_user_created
+    ON app_notifications (user_id, created_at DESC);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS notification_preferences (
+    id                UUID PRIMARY KEY,
+    user_id           UUID                     NOT NULL,
+    notification_type VARCHAR(64)              NOT NULL,
+    channel           VARCHAR(16)              NOT NULL,
+    enabled           BOOLEAN                  NOT NULL,
+    updated_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_notification_preferences_user_type_channel
+        UNIQUE (user_id, notification_type, channel)
+);
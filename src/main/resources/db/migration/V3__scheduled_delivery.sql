@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS quiet_hours (
+    user_id    UUID PRIMARY KEY,
+    start_time TIME(6)                     NOT NULL,
+    end_time   TIME(6)                     NOT NULL,
+    zone_id    VARCHAR(64)                 NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scheduled_notifications (
+    id                UUID PRIMARY KEY,
+    user_id           UUID,
+    notification_type VARCHAR(64)                 NOT NULL,
+    payload_json      TEXT                        NOT NULL,
+    deliver_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    status            VARCHAR(16)                 NOT NULL,
+    reason            VARCHAR(16)                 NOT NULL,
+    created_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    dispatched_at     TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduled_notifications_status_deliver_at
+    ON scheduled_notifications (status, deliver_at);
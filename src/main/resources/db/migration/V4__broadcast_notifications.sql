@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS broadcast_notifications (
+    id            UUID PRIMARY KEY,
+    category      VARCHAR(128),
+    title         VARCHAR(255)                NOT NULL,
+    message       TEXT,
+    priority      VARCHAR(16),
+    action_url    VARCHAR(255),
+    action_text   VARCHAR(64),
+    metadata_json TEXT,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at    TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS broadcast_receipts (
+    id           UUID PRIMARY KEY,
+    broadcast_id UUID                        NOT NULL,
+    user_id      UUID                        NOT NULL,
+    state        VARCHAR(16)                 NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_broadcast_receipts_broadcast_user UNIQUE (broadcast_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_receipts_user ON broadcast_receipts (user_id);
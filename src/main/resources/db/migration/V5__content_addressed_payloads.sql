@@ -0,0 +1,48 @@
+-- Template data and metadata are stored once per distinct content, keyed by SHA-256 of the JSON.
+CREATE TABLE IF NOT EXISTS notification_payloads (
+    hash          VARCHAR(64) PRIMARY KEY,
+    encoding      VARCHAR(8)                  NOT NULL,
+    content       BYTEA                       NOT NULL,
+    original_size INTEGER                     NOT NULL,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS template_data_hash VARCHAR(64);
+ALTER TABLE app_notifications ADD COLUMN IF NOT EXISTS metadata_hash VARCHAR(64);
+
+-- Move existing inline JSON into the payload table, deduplicating on the way. Existing text is
+-- hashed as-is; it is stored uncompressed.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'notifications' AND column_name = 'template_data') THEN
+        INSERT INTO notification_payloads (hash, encoding, content, original_size, created_at)
+        SELECT DISTINCT ON (h.hash) h.hash, 'RAW', h.content, octet_length(h.content), now()
+        FROM (SELECT encode(sha256(convert_to(template_data, 'UTF8')), 'hex') AS hash,
+                     convert_to(template_data, 'UTF8') AS content
+              FROM notifications WHERE template_data IS NOT NULL) h
+        ON CONFLICT (hash) DO NOTHING;
+
+        UPDATE notifications
+        SET template_data_hash = encode(sha256(convert_to(template_data, 'UTF8')), 'hex')
+        WHERE template_data IS NOT NULL AND template_data_hash IS NULL;
+
+        ALTER TABLE notifications DROP COLUMN template_data;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'app_notifications' AND column_name = 'metadata_json') THEN
+        INSERT INTO notification_payloads (hash, encoding, content, original_size, created_at)
+        SELECT DISTINCT ON (h.hash) h.hash, 'RAW', h.content, octet_length(h.content), now()
+        FROM (SELECT encode(sha256(convert_to(metadata_json, 'UTF8')), 'hex') AS hash,
+                     convert_to(metadata_json, 'UTF8') AS content
+              FROM app_notifications WHERE metadata_json IS NOT NULL) h
+        ON CONFLICT (hash) DO NOTHING;
+
+        UPDATE app_notifications
+        SET metadata_hash = encode(sha256(convert_to(metadata_json, 'UTF8')), 'hex')
+        WHERE metadata_json IS NOT NULL AND metadata_hash IS NULL;
+
+        ALTER TABLE app_notifications DROP COLUMN metadata_json;
+    END IF;
+END $$;
@@ -0,0 +1,15 @@
+-- Full-text search over the bell feed. Title outranks category, which outranks the message body.
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE app_notifications
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A')
+                || setweight(to_tsvector('english'::regconfig, coalesce(category, '')), 'B')
+                || setweight(to_tsvector('english'::regconfig, coalesce(message, '')), 'C')
+        ) STORED;
+
+-- user_id in the same GIN index lets a search touch only the caller's postings,
+-- however large other users' histories are
+CREATE INDEX IF NOT EXISTS idx_app_notifications_user_search
+    ON app_notifications USING GIN (user_id, search_vector);
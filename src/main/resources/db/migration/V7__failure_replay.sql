@@ -0,0 +1,32 @@
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS error_class VARCHAR(128);
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS replay_job_id UUID;
+
+UPDATE notifications SET error_class = 'Unknown' WHERE status = 'FAILED' AND error_class IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_failed
+    ON notifications (type, error_class, created_at) WHERE status = 'FAILED';
+
+CREATE INDEX IF NOT EXISTS idx_notifications_replay_job
+    ON notifications (replay_job_id) WHERE replay_job_id IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS replay_jobs (
+    id                UUID PRIMARY KEY,
+    status            VARCHAR(16)                 NOT NULL,
+    notification_type VARCHAR(64),
+    error_class       VARCHAR(128),
+    from_time         TIMESTAMP(6) WITH TIME ZONE,
+    to_time           TIMESTAMP(6) WITH TIME ZONE,
+    record_ids_json   TEXT,
+    rate_per_second   DOUBLE PRECISION            NOT NULL,
+    total             INTEGER                     NOT NULL,
+    published         INTEGER                     NOT NULL,
+    skipped           INTEGER                     NOT NULL,
+    publish_failed    INTEGER                     NOT NULL,
+    last_error        TEXT,
+    created_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at        TIMESTAMP(6) WITH TIME ZONE,
+    heartbeat_at      TIMESTAMP(6) WITH TIME ZONE,
+    finished_at       TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_replay_jobs_status_created ON replay_jobs (status, created_at);
@@ -0,0 +1,17 @@
+-- Cold tier for read notifications past the hot window. Only the keys used for lookup stay as
+-- columns; the rest of the row is one gzipped JSON document.
+CREATE TABLE IF NOT EXISTS app_notifications_archive (
+    id            UUID PRIMARY KEY,
+    user_id       UUID                        NOT NULL,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    archived_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    content       BYTEA                       NOT NULL,
+    original_size INTEGER                     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_app_notifications_archive_user_created
+    ON app_notifications_archive (user_id, created_at DESC, id DESC);
+
+-- Archiving candidates without scanning unread rows
+CREATE INDEX IF NOT EXISTS idx_app_notifications_read_created
+    ON app_notifications (created_at) WHERE status = 'READ';
@@ -0,0 +1,24 @@
+-- Per-user counters maintained incrementally with each write and rebuilt periodically from the
+-- source tables. Absent category / priority are stored as ''.
+CREATE TABLE IF NOT EXISTS notification_stats (
+    user_id  UUID         NOT NULL,
+    source   VARCHAR(8)   NOT NULL, -- APP (app_notifications) | EMAIL (notifications)
+    category VARCHAR(128) NOT NULL, -- app category, or delivery type for EMAIL
+    priority VARCHAR(16)  NOT NULL,
+    status   VARCHAR(16)  NOT NULL,
+    total    BIGINT       NOT NULL,
+    PRIMARY KEY (user_id, source, category, priority, status)
+);
+
+-- Rows created per UTC day
+CREATE TABLE IF NOT EXISTS notification_daily_stats (
+    user_id UUID       NOT NULL,
+    source  VARCHAR(8) NOT NULL,
+    day     DATE       NOT NULL,
+    total   BIGINT     NOT NULL,
+    PRIMARY KEY (user_id, source, day)
+);
+
+-- Lets reconciliation count archived rows without decompressing them
+ALTER TABLE app_notifications_archive ADD COLUMN IF NOT EXISTS category VARCHAR(128);
+ALTER TABLE app_notifications_archive ADD COLUMN IF NOT EXISTS priority VARCHAR(16);
@@ -0,0 +1,128 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+
+class MessageCodecTest {
+
+    private final Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+    private final SmileMessageConverter smile = new SmileMessageConverter("*");
+    private final ThresholdCompressingPostProcessor compressor = new ThresholdCompressingPostProcessor(4096);
+    private final DelegatingDecompressingPostProcessor decompressor = new DelegatingDecompressingPostProcessor();
+    private final ContentTypeDelegatingMessageConverter inbound = inbound();
+
+    private ContentTypeDelegatingMessageConverter inbound() {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(json);
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, smile);
+        return converter;
+    }
+
+    @Test
+    void decodesCompressedSmile() {
+        NotificationRequest request = request(200);
+        Message sent = compressor.postProcessMessage(smile.toMessage(request, new MessageProperties()));
+        assertEquals(
+                SmileMessageConverter.CONTENT_TYPE, sent.getMessageProperties().getContentType());
+        assertTrue(sent.getMessageProperties().getContentEncoding().startsWith("gzip"));
+
+        assertEquals(request, receive(sent));
+    }
+
+    @Test
+    void stillDecodesJsonFromExistingProducers() {
+        NotificationRequest request = request(3);
+        Message sent = compressor.postProcessMessage(json.toMessage(request, new MessageProperties()));
+        // Below the threshold, so sent as plain JSON
+        assertEquals("UTF-8", sent.getMessageProperties().getContentEncoding());
+
+        assertEquals(request, receive(sent));
+    }
+
+    @Test
+    void skipsCompressionBelowThreshold() {
+        Message sent = compressor.postProcessMessage(smile.toMessage(request(1), new MessageProperties()));
+        assertNull(sent.getMessageProperties().getContentEncoding());
+    }
+
+    /**
+     * Size and decode cost of one large request per encoding. Run with {@code -Dbenchmarks=true
+     * -Dtest=MessageCodecTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkEncodings() {
+        NotificationRequest request = request(500);
+        Map<String, Message> encoded = new LinkedHashMap<>();
+        encoded.put("json", json.toMessage(request, new MessageProperties()));
+        encoded.put("json+gzip", compressor.postProcessMessage(json.toMessage(request, new MessageProperties())));
+        encoded.put("smile", smile.toMessage(request, new MessageProperties()));
+        encoded.put("smile+gzip", compressor.postProcessMessage(smile.toMessage(request, new MessageProperties())));
+
+        int iterations = 5_000;
+        encoded.forEach((name, message) -> {
+            for (int i = 0; i < iterations; i++) {
+                receive(message); // warm-up
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                receive(message);
+            }
+            long micros = (System.nanoTime() - start) / iterations / 1000;
+            System.out.printf("%-11s %8d bytes %6d us/decode%n", name, message.getBody().length, micros);
+        });
+    }
+
+    private Object receive(Message sent) {
+        Message copy = new Message(sent.getBody().clone(), copyProperties(sent.getMessageProperties()));
+        Message received = decompressor.postProcessMessage(copy);
+        received.getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+        return inbound.fromMessage(received);
+    }
+
+    private static MessageProperties copyProperties(MessageProperties source) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(source.getContentType());
+        properties.setContentEncoding(source.getContentEncoding());
+        properties.getHeaders().putAll(source.getHeaders());
+        return properties;
+    }
+
+    private static NotificationRequest request(int papers) {
+        List<Map<String, Object>> results = new ArrayList<>(papers);
+        for (int i = 0; i < papers; i++) {
+            results.add(Map.of(
+                    "paperId",
+                    "paper-" + i,
+                    "title",
+                    "A study of retrieval-augmented summarization, part " + i,
+                    "citationCount",
+                    i * 7,
+                    "relevance",
+                    1.0 / (i + 1)));
+        }
+        return NotificationRequest.builder()
+                .notificationType("WEB_SEARCH_COMPLETED")
+                .recipientEmail("user@example.com")
+                .recipientName("Test User")
+                .timestamp(Instant.parse("2025-01-15T10:30:00Z"))
+                .userId(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .templateData(Map.of("projectName", "Survey", "papersCount", papers, "papers", results))
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ReadAdmissionFilterTest {
+
+    private static final String USER = "/api/v1/app-notifications/user/3f1c8a5e-0000-0000-0000-000000000001";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void userOverItsBurstGets429WithRetryAfter() throws Exception {
+        ReadAdmissionFilter filter = filter(1, 2, 1000, 1000, 2);
+
+        assertEquals(200, get(filter, USER, "a").getStatus());
+        assertEquals(200, get(filter, USER + "/unread-count", "b").getStatus());
+        MockHttpServletResponse rejected = get(filter, USER, "c");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, rejectedCount("user"));
+        assertEquals(
+                200,
+                get(filter, "/api/v1/app-notifications/user/another-user", "c").getStatus());
+    }
+
+    @Test
+    void clientIsLimitedAcrossUsers() throws Exception {
+        ReadAdmissionFilter filter = filter(1000, 1000, 0.5, 1, 2);
+
+        assertEquals(200, get(filter, USER, "poller").getStatus());
+        MockHttpServletResponse rejected = get(filter, "/api/v1/app-notifications/user/other", "poller");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, rejectedCount("client"));
+    }
+
+    @Test
+    void writesAndUnlistedPathsAreNotLimited() throws Exception {
+        ReadAdmissionFilter filter = filter(0.1, 1, 0.1, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest post = new MockHttpServletRequest("POST", USER + "/read");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(post, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+            assertEquals(200, get(filter, "/actuator/health", "a").getStatus());
+        }
+    }
+
+    @Test
+    void readsBeyondTheConcurrencyLimitAreTurnedAway() throws Exception {
+        ReadAdmissionFilter filter = filter(1000, 1000, 1000, 1000, 1);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            inside.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> {
+                filter.doFilter(request(USER, "a"), new MockHttpServletResponse(), slow);
+                return null;
+            });
+            assertEquals(true, inside.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse rejected = get(filter, USER, "b");
+
+            assertEquals(429, rejected.getStatus());
+            assertEquals(1.0, rejectedCount("concurrency"));
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            assertEquals(200, get(filter, USER, "b").getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void asyncReadHoldsItsPermitUntilTheResponseCompletes() throws Exception {
+        ReadAdmissionFilter filter = filter(1000, 1000, 1000, 1000, 1);
+        MockHttpServletRequest history = startAsync(filter, USER + "/history");
+
+        assertEquals(429, get(filter, USER, "b").getStatus());
+        assertEquals(1.0, rejectedCount("concurrency"));
+
+        ((MockAsyncContext) history.getAsyncContext()).complete();
+        assertEquals(200, get(filter, USER, "b").getStatus());
+        assertEquals(200, get(filter, USER, "b").getStatus());
+    }
+
+    @Test
+    void exportInFlightDoesNotBlockListReads() throws Exception {
+        ReadAdmissionFilter filter = filter(1000, 1000, 1000, 1000, 1);
+        MockHttpServletRequest export = startAsync(filter, USER + "/export");
+
+        assertEquals(200, get(filter, USER, "b").getStatus());
+        assertEquals(200, get(filter, USER + "/unread-count", "b").getStatus());
+        assertEquals(429, get(filter, USER + "/export", "c").getStatus());
+        assertEquals(1.0, rejectedCount("long-running"));
+        assertEquals(0.0, rejectedCount("concurrency"));
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        startAsync(filter, USER + "/export");
+    }
+
+    /** Starts an async read that keeps its permit until its context completes. */
+    private static MockHttpServletRequest startAsync(ReadAdmissionFilter filter, String path) throws Exception {
+        MockHttpServletRequest request = request(path, "a");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        assertEquals(200, response.getStatus());
+        return request;
+    }
+
+    private ReadAdmissionFilter filter(
+            double userRate, double userBurst, double clientRate, double clientBurst, int maxConcurrent) {
+        return new ReadAdmissionFilter(
+                List.of("/api/v1/app-notifications/user/{userId}/**"),
+                List.of("/api/v1/app-notifications/user/{userId}/export"),
+                userRate,
+                userBurst,
+                clientRate,
+                clientBurst,
+                "X-Client-Id",
+                600_000,
+                maxConcurrent,
+                0,
+                10,
+                1,
+                meterRegistry);
+    }
+
+    private static MockHttpServletResponse get(ReadAdmissionFilter filter, String path, String client)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(path, client), response, chain);
+        if (response.getStatus() == 429) {
+            assertNull(chain.getRequest(), "rejected request must not reach the controller");
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    private double rejectedCount(String reason) {
+        return meterRegistry
+                .get("notification.admission.rejected")
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+}
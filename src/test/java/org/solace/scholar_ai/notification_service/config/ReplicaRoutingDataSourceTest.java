@@ -0,0 +1,109 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Routes between two in-memory H2 databases standing in for the primary and a replica. */
+class ReplicaRoutingDataSourceTest {
+
+    private final JdbcTemplate primaryDb = database("primary");
+    private final JdbcTemplate replicaDb = database("replica");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primaryDb.getDataSource(),
+            Map.of("replica-0", replicaDb.getDataSource()),
+            "SELECT lag_ms FROM replica_lag",
+            1000,
+            meterRegistry);
+    private final LazyConnectionDataSourceProxy proxy = proxy(routing);
+    private final JdbcTemplate jdbc = new JdbcTemplate(proxy);
+    private final TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+    private final TransactionTemplate readOnly = readOnly();
+
+    private static JdbcTemplate database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16))");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_ms BIGINT)");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.execute("DELETE FROM replica_lag");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        jdbc.update("INSERT INTO replica_lag VALUES (0)");
+        return jdbc;
+    }
+
+    /** Wired as in {@link ReadReplicaConfig}. */
+    private static LazyConnectionDataSourceProxy proxy(ReplicaRoutingDataSource routing) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing.primary());
+        proxy.setReadOnlyDataSource(routing);
+        return proxy;
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(readWrite.getTransactionManager());
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @AfterEach
+    void shutdown() {
+        primaryDb.execute("SHUTDOWN");
+        replicaDb.execute("SHUTDOWN");
+    }
+
+    private String whoami(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaOnceItsLagIsKnown() {
+        assertEquals("primary", whoami(readOnly), "lag not yet measured");
+
+        routing.checkLag();
+
+        assertEquals("replica", whoami(readOnly));
+        assertEquals("primary", whoami(readWrite));
+        assertEquals(
+                1.0,
+                meterRegistry
+                        .counter("notification.datasource.reads", "target", "replica-0", "reason", "replica")
+                        .count());
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaLags() {
+        replicaDb.update("UPDATE replica_lag SET lag_ms = 5000");
+        routing.checkLag();
+
+        assertEquals("primary", whoami(readOnly));
+        assertEquals(5000.0, routing.lagByReplica().get("replica-0"));
+
+        replicaDb.update("UPDATE replica_lag SET lag_ms = 20");
+        routing.checkLag();
+
+        assertEquals("replica", whoami(readOnly));
+    }
+
+    @Test
+    void pinnedTransactionReadsFromThePrimaryUntilItCompletes() {
+        routing.checkLag();
+
+        String pinned = readOnly.execute(status -> {
+            ReplicaRoutingDataSource.pinToPrimary();
+            return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+        });
+
+        assertEquals("primary", pinned);
+        assertEquals("replica", whoami(readOnly));
+    }
+}
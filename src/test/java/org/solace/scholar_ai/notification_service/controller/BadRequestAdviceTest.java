@@ -0,0 +1,162 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.solace.scholar_ai.notification_service.repository.QuietHoursRepository;
+import org.solace.scholar_ai.notification_service.repository.ReplayJobRepository;
+import org.solace.scholar_ai.notification_service.service.AppNotificationArchiveService;
+import org.solace.scholar_ai.notification_service.service.AppNotificationService;
+import org.solace.scholar_ai.notification_service.service.BroadcastNotificationService;
+import org.solace.scholar_ai.notification_service.service.DeliveryTracer;
+import org.solace.scholar_ai.notification_service.service.FailureReplayService;
+import org.solace.scholar_ai.notification_service.service.NotificationDrainCoordinator;
+import org.solace.scholar_ai.notification_service.service.NotificationPreferenceService;
+import org.solace.scholar_ai.notification_service.service.NotificationStatsService;
+import org.solace.scholar_ai.notification_service.service.PayloadStore;
+import org.solace.scholar_ai.notification_service.service.QuietHoursService;
+import org.solace.scholar_ai.notification_service.service.ReadYourWritesTracker;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+
+class BadRequestAdviceTest {
+
+    private static final String USER = "/api/v1/notification-preferences/user/3f1c8a5e-0000-0000-0000-000000000001";
+
+    private final NotificationPreferenceService preferences = mock(NotificationPreferenceService.class);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new NotificationPreferenceController(
+                    preferences, new QuietHoursService(mock(QuietHoursRepository.class), 10, 60)))
+            .setControllerAdvice(new BadRequestAdvice())
+            .build();
+
+    @Test
+    void rejectedPreferenceIsABadRequest() throws Exception {
+        when(preferences.update(any(), any(), any(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("Email for PASSWORD_RESET cannot be disabled"));
+
+        mvc.perform(put(USER)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notificationType\":\"PASSWORD_RESET\",\"channel\":\"EMAIL\",\"enabled\":false}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Email for PASSWORD_RESET cannot be disabled"));
+    }
+
+    @Test
+    void invalidQuietHoursAreABadRequest() throws Exception {
+        mvc.perform(put(USER + "/quiet-hours")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"start\":\"22:00\",\"end\":\"22:00\",\"zoneId\":\"UTC\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Quiet hours start and end must differ"));
+        mvc.perform(put(USER + "/quiet-hours")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"start\":\"22:00\",\"end\":\"07:00\",\"zoneId\":\"Mars/Olympus\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown time zone: Mars/Olympus"));
+    }
+
+    @Test
+    void blankSearchAndTamperedCursorsAreBadRequests() throws Exception {
+        MockMvc app = appNotifications();
+        String user = "/api/v1/app-notifications/user/3f1c8a5e-0000-0000-0000-000000000001";
+        String farFuture = Base64.getUrlEncoder()
+                .encodeToString("1|+100000-01-01T00:00:00Z|3f1c8a5e-0000-0000-0000-000000000001".getBytes());
+
+        app.perform(get(user + "/search").param("q", " ")).andExpect(status().isBadRequest());
+        app.perform(get(user + "/search").param("q", "paper").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid search cursor"));
+        app.perform(get(user + "/search").param("q", "paper").param("cursor", farFuture))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tamperedHistoryCursorsAreBadRequests() throws Exception {
+        MockMvc app = appNotifications();
+        String history = "/api/v1/app-notifications/user/3f1c8a5e-0000-0000-0000-000000000001/history";
+        String farFuture = Base64.getUrlEncoder()
+                .encodeToString("+100000-01-01T00:00:00Z|3f1c8a5e-0000-0000-0000-000000000001".getBytes());
+
+        app.perform(get(history).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid history cursor"));
+        app.perform(get(history).param("cursor", farFuture)).andExpect(status().isBadRequest());
+        app.perform(get(history).param("limit", "0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void invalidReplaySelectionsAreBadRequests() throws Exception {
+        FailureReplayService service = new FailureReplayService(
+                mock(NotificationRecordRepository.class),
+                mock(ReplayJobRepository.class),
+                mock(PayloadStore.class),
+                mock(RabbitTemplate.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(NotificationDrainCoordinator.class),
+                mock(NotificationStatsService.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "defaultRatePerSecond", 5.0);
+        ReflectionTestUtils.setField(service, "maxRatePerSecond", 50.0);
+        ReflectionTestUtils.setField(service, "maxRecordsPerJob", 2);
+        MockMvc replays = MockMvcBuilders.standaloneSetup(new FailureReplayController(service))
+                .setControllerAdvice(new BadRequestAdvice())
+                .build();
+        String ids = "[\"3f1c8a5e-0000-0000-0000-000000000001\",\"3f1c8a5e-0000-0000-0000-000000000002\","
+                + "\"3f1c8a5e-0000-0000-0000-000000000003\"]";
+
+        replays.perform(post("/api/v1/admin/failures/replays")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Select records by ids, type or error class"));
+        replays.perform(post("/api/v1/admin/failures/replays")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + ids + "}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("At most 2 ids per replay job"));
+        replays.perform(post("/api/v1/admin/failures/replays")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"WELCOME_EMAIL\",\"ratePerSecond\":500}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Rate must be between 0 and 50.0 per second"));
+    }
+
+    private static MockMvc appNotifications() {
+        AppNotificationService service = new AppNotificationService(
+                mock(AppNotificationRepository.class),
+                mock(BroadcastNotificationService.class),
+                mock(ReadYourWritesTracker.class),
+                mock(AppNotificationArchiveService.class),
+                mock(NotificationStatsService.class),
+                mock(PayloadStore.class),
+                mock(DeliveryTracer.class));
+        // Validated like the running app, where @Validated proxies the controller
+        ProxyFactory proxy = new ProxyFactory(new AppNotificationController(
+                service, mock(BroadcastNotificationService.class), mock(Validator.class)));
+        proxy.setProxyTargetClass(true);
+        proxy.addAdvice(new MethodValidationInterceptor());
+        return MockMvcBuilders.standaloneSetup(proxy.getProxy())
+                .setControllerAdvice(new BadRequestAdvice())
+                .build();
+    }
+}
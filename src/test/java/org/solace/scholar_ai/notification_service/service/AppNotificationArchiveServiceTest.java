@@ -0,0 +1,57 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.ArchivedAppNotification;
+
+class AppNotificationArchiveServiceTest {
+
+    private final AppNotificationArchiveService service =
+            new AppNotificationArchiveService(null, null, null, null, new SimpleMeterRegistry());
+
+    @Test
+    void archivedRowRestoresAsReadOnlyCopyOfTheOriginal() {
+        Instant created = Instant.now().minus(40, ChronoUnit.DAYS);
+        AppNotification original = AppNotification.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .type(AppNotification.NotificationKind.SERVICE)
+                .category("web_search_completed")
+                .title("🔍 Research Search Complete • Engine (12 papers)")
+                .message("Web search completed for \"Engine\". Found 12 papers matching \"retrieval\". ".repeat(4))
+                .priority(AppNotification.NotificationPriority.MEDIUM)
+                .status(AppNotification.NotificationStatus.READ)
+                .actionUrl("/interface/projects")
+                .actionText("View Results")
+                .relatedProjectId("p-1")
+                .metadataHash("ab".repeat(32))
+                .createdAt(created)
+                .updatedAt(created.plusSeconds(60))
+                .readAt(created.plusSeconds(60))
+                .collapsedCount(3)
+                .build();
+
+        ArchivedAppNotification archived = service.encode(original, Instant.now());
+        AppNotification restored = service.decode(archived);
+
+        assertTrue(archived.getContent().length < archived.getOriginalSize(), "content is compressed");
+        assertEquals(original.getId(), restored.getId());
+        assertEquals(original.getUserId(), restored.getUserId());
+        assertEquals(original.getCreatedAt(), restored.getCreatedAt());
+        assertEquals(original.getTitle(), restored.getTitle());
+        assertEquals(original.getMessage(), restored.getMessage());
+        assertEquals(original.getPriority(), restored.getPriority());
+        assertEquals(original.getMetadataHash(), restored.getMetadataHash());
+        assertEquals(original.getReadAt(), restored.getReadAt());
+        assertEquals(3, restored.getCollapsedCount());
+        assertEquals(AppNotification.NotificationStatus.READ, restored.getStatus());
+        assertTrue(restored.isArchived());
+    }
+}
@@ -0,0 +1,165 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+
+class AppNotificationServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final Instant PREVIOUS = Instant.parse("2025-03-01T10:00:00Z");
+
+    private final AppNotificationRepository repository = mock(AppNotificationRepository.class);
+    private final NotificationStatsService stats = mock(NotificationStatsService.class);
+    private final AppNotificationArchiveService archive = mock(AppNotificationArchiveService.class);
+    private final AppNotificationService service = new AppNotificationService(
+            repository,
+            null,
+            mock(ReadYourWritesTracker.class),
+            archive,
+            stats,
+            mock(PayloadStore.class),
+            mock(DeliveryTracer.class));
+
+    @Test
+    void historyMergesArchivedRowsNewerThanAnOldUnreadHotRow() {
+        Instant now = Instant.parse("2025-06-01T00:00:00Z");
+        AppNotification oldUnread = row(now.minus(90, ChronoUnit.DAYS), false);
+        AppNotification recent = row(now.minus(1, ChronoUnit.DAYS), false);
+        List<AppNotification> archived = List.of(
+                row(now.minus(35, ChronoUnit.DAYS), true),
+                row(now.minus(50, ChronoUnit.DAYS), true),
+                row(now.minus(89, ChronoUnit.DAYS), true));
+        when(repository.findOlder(eq(USER), any(), any(), anyInt()))
+                .thenAnswer(call -> olderThan(
+                        List.of(recent, oldUnread), call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+        when(archive.findOlder(eq(USER), any(), any(), anyInt()))
+                .thenAnswer(call -> olderThan(archived, call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+
+        AppNotificationService.HistoryPage first = service.listOlder(USER, null, 2);
+        AppNotificationService.HistoryPage second = service.listOlder(USER, first.nextCursor(), 2);
+        AppNotificationService.HistoryPage third = service.listOlder(USER, second.nextCursor(), 2);
+
+        assertEquals(List.of(recent, archived.get(0)), first.items());
+        assertEquals(List.of(archived.get(1), archived.get(2)), second.items());
+        assertEquals(List.of(oldUnread), third.items());
+        assertNull(third.nextCursor());
+    }
+
+    @Test
+    void collapseKeyNeedsACategoryAndARelatedId() {
+        assertEquals(
+                "web_search_completed|p-1||",
+                AppNotificationService.collapseKey("web_search_completed", "p-1", null, null));
+        assertEquals(
+                "summarization_completed|p-1|paper-9|",
+                AppNotificationService.collapseKey("summarization_completed", "p-1", "paper-9", null));
+        assertNull(AppNotificationService.collapseKey("welcome_email", null, null, null));
+        assertNull(AppNotificationService.collapseKey(null, "p-1", null, null));
+    }
+
+    @Test
+    void batchKeepsOrderAndFoldsRepeatsIntoTheExistingRow() {
+        UUID existing = UUID.randomUUID();
+        when(repository.saveAll(anyList())).thenAnswer(call -> call.getArgument(0));
+        when(repository.upsertCollapsed(any())).thenReturn(result(existing, 4, "MEDIUM", PREVIOUS));
+        AppNotification plain = draft(null);
+        AppNotification repeat = draft(AppNotificationService.collapseKey("web_search_completed", "p-1", null, null));
+
+        List<AppNotification> saved = service.createAll(List.of(plain, repeat));
+
+        assertEquals(List.of(plain, repeat), saved);
+        assertEquals(existing, repeat.getId());
+        assertEquals(4, repeat.getCollapsedCount());
+        verify(repository).saveAll(List.of(plain));
+        verify(stats).appCreated(plain);
+        verify(stats, never()).appCreated(repeat);
+        verify(stats).appCollapsed(any(), any());
+    }
+
+    @Test
+    void firstEventOfAKeyCountsAsCreated() {
+        when(repository.upsertCollapsed(any())).thenAnswer(call -> {
+            AppNotification n = call.getArgument(0);
+            assertNotNull(n.getId());
+            return result(n.getId(), 1, null, null);
+        });
+        AppNotification first = draft(AppNotificationService.collapseKey("web_search_completed", "p-1", null, null));
+
+        service.createAll(List.of(first));
+
+        assertEquals(1, first.getCollapsedCount());
+        verify(stats).appCreated(first);
+        verify(stats, never()).appCollapsed(any(), any());
+    }
+
+    private static AppNotification row(Instant createdAt, boolean archived) {
+        return AppNotification.builder()
+                .id(UUID.randomUUID())
+                .userId(USER)
+                .status(archived ? AppNotification.NotificationStatus.READ : AppNotification.NotificationStatus.UNREAD)
+                .createdAt(createdAt)
+                .archived(archived)
+                .build();
+    }
+
+    /** What the keyset queries return: rows before the cursor, newest first, at most {@code limit}. */
+    private static List<AppNotification> olderThan(List<AppNotification> rows, Instant createdAt, UUID id, int limit) {
+        return rows.stream()
+                .filter(n -> n.getCreatedAt().isBefore(createdAt)
+                        || (n.getCreatedAt().equals(createdAt)
+                                && n.getId().toString().compareTo(id.toString()) < 0))
+                .sorted(Comparator.comparing(AppNotification::getCreatedAt).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static AppNotification draft(String collapseKey) {
+        return AppNotification.builder()
+                .userId(USER)
+                .type(AppNotification.NotificationKind.SERVICE)
+                .category("web_search_completed")
+                .priority(AppNotification.NotificationPriority.MEDIUM)
+                .collapseKey(collapseKey)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static AppNotificationRepository.CollapseResult result(
+            UUID id, int count, String previousPriority, Instant previousCreatedAt) {
+        return new AppNotificationRepository.CollapseResult() {
+            public UUID getId() {
+                return id;
+            }
+
+            public int getCollapsedCount() {
+                return count;
+            }
+
+            public String getPreviousPriority() {
+                return previousPriority;
+            }
+
+            public Instant getPreviousCreatedAt() {
+                return previousCreatedAt;
+            }
+        };
+    }
+}
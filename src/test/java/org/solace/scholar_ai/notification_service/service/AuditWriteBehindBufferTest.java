@@ -0,0 +1,176 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AuditWriteBehindBufferTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path dir;
+
+    private final NotificationRecordRepository repository = mock(NotificationRecordRepository.class);
+    private final List<String> saved = new ArrayList<>();
+    private AuditWriteBehindBuffer buffer;
+
+    @AfterEach
+    void stop() {
+        buffer.shutdown();
+    }
+
+    @Test
+    void replayRejectsUnreadableLinesAndKeepsAnUnfinishedReplay() throws Exception {
+        when(repository.saveAll(anyList())).thenAnswer(call -> {
+            List<NotificationRecord> records = call.getArgument(0);
+            records.forEach(r -> saved.add(r.getRecipientEmail()));
+            return records;
+        });
+        buffer = buffer();
+        Files.write(spill().resolveSibling("audit.jsonl.replaying"), List.of(line("a@x.org"), "{not json"));
+        Files.write(spill(), List.of(line("b@x.org"), line("c@x.org")));
+
+        buffer.replaySpill();
+
+        assertEquals(List.of("a@x.org", "b@x.org", "c@x.org"), saved);
+        assertEquals(List.of("{not json"), Files.readAllLines(spill().resolveSibling("audit.jsonl.rejected")));
+        assertFalse(Files.exists(spill()));
+        assertFalse(Files.exists(spill().resolveSibling("audit.jsonl.replaying")));
+    }
+
+    @Test
+    void replayThatFailsAgainPutsEveryRecordBack() throws Exception {
+        when(repository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer = buffer();
+        Files.write(spill(), List.of(line("a@x.org"), line("b@x.org"), line("c@x.org")));
+
+        buffer.replaySpill();
+
+        List<String> left = Files.readAllLines(spill(), StandardCharsets.UTF_8).stream()
+                .map(l -> l.replaceAll(".*\"recipientEmail\":\"([^\"]+)\".*", "$1"))
+                .sorted()
+                .toList();
+        assertEquals(List.of("a@x.org", "b@x.org", "c@x.org"), left);
+        assertFalse(Files.exists(spill().resolveSibling("audit.jsonl.replaying")));
+    }
+
+    @Test
+    void overflowWritesRacingAReplayLoseNothing() throws Exception {
+        // Writes from the listener threads fail and spill; only the replaying thread reaches the database
+        AtomicBoolean down = new AtomicBoolean(true);
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        when(repository.saveAll(anyList())).thenAnswer(call -> {
+            if (down.get() && !Thread.currentThread().getName().equals("replayer")) {
+                throw new DataAccessResourceFailureException("down");
+            }
+            List<NotificationRecord> records = call.getArgument(0);
+            records.forEach(r -> stored.add(r.getRecipientEmail()));
+            return records;
+        });
+        // Capacity 1: after the first record every enqueue overflows into a synchronous write
+        buffer = buffer(1);
+        int writers = 8;
+        int perWriter = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        ExecutorService replaying = Executors.newSingleThreadExecutor(r -> new Thread(r, "replayer"));
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                running.add(executor.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        buffer.enqueue(record(writer + "-" + i + "@x.org"), Map.of("i", i));
+                    }
+                }));
+            }
+            Future<?> replayer = replaying.submit(() -> {
+                while (running.stream().anyMatch(f -> !f.isDone())) {
+                    replayHoldingTheFlushLock();
+                }
+            });
+            for (Future<?> writer : running) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            replayer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+            replaying.shutdownNow();
+        }
+        down.set(false);
+        replayHoldingTheFlushLock();
+        buffer.flushPending(Duration.ofSeconds(5));
+
+        assertEquals(writers * perWriter, stored.size());
+        assertFalse(Files.exists(spill()));
+        assertFalse(Files.exists(spill().resolveSibling("audit.jsonl.rejected")));
+    }
+
+    private void replayHoldingTheFlushLock() {
+        ReentrantLock flushLock = (ReentrantLock) ReflectionTestUtils.getField(buffer, "flushLock");
+        flushLock.lock();
+        try {
+            buffer.replaySpill();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private AuditWriteBehindBuffer buffer() {
+        return buffer(100);
+    }
+
+    private AuditWriteBehindBuffer buffer(int capacity) {
+        PayloadStore payloadStore = mock(PayloadStore.class);
+        return new AuditWriteBehindBuffer(
+                repository, payloadStore, new SimpleMeterRegistry(), capacity, 2, 3_600_000, spill().toString());
+    }
+
+    private Path spill() {
+        return dir.resolve("audit.jsonl");
+    }
+
+    private static String line(String email) throws Exception {
+        return MAPPER.writeValueAsString(
+                new AuditWriteBehindBuffer.PendingRecord(record(email), Map.of("name", email)));
+    }
+
+    private static NotificationRecord record(String email) {
+        return NotificationRecord.builder()
+                .recipientEmail(email)
+                .type("WELCOME_EMAIL")
+                .status("SENT")
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class DeliveryTracerTest {
+
+    @Test
+    void connectTimeIsTakenOutOfTheFollowingSend() {
+        DeliveryTrace trace = new DeliveryTrace("WELCOME_EMAIL", null);
+
+        trace.add(DeliveryStage.SMTP_CONNECT, millis(30));
+        trace.add(DeliveryStage.SMTP_DATA, millis(100));
+        // A reused connection: nothing left to subtract from the next send
+        trace.add(DeliveryStage.SMTP_DATA, millis(50));
+
+        assertEquals(millis(30), trace.stageNanos(DeliveryStage.SMTP_CONNECT));
+        assertEquals(millis(120), trace.stageNanos(DeliveryStage.SMTP_DATA));
+    }
+
+    @Test
+    void queueWaitIsOnlyRecordedWithAnEnqueueTime() {
+        DeliveryTracer tracer = new DeliveryTracer(60_000, 10);
+        deliver(tracer, Instant.now().minusSeconds(2));
+        // Redelivered: no queue wait
+        deliver(tracer, null);
+        tracer.rollInterval();
+
+        Map<String, Object> window = window(tracer.report(), "1m");
+        assertEquals(1L, count(window, DeliveryStage.QUEUE_WAIT.name()));
+        assertEquals(2L, count(window, "TOTAL"));
+    }
+
+    @Test
+    void windowsMergeTheRecentIntervalsAndDropExpiredOnes() {
+        // Five minute intervals: the 1 and 5 minute windows see the last one, the 15 minute window three
+        DeliveryTracer tracer = new DeliveryTracer(300_000, 10);
+        deliver(tracer, null);
+        tracer.rollInterval();
+        deliver(tracer, null);
+        deliver(tracer, null);
+        tracer.rollInterval();
+
+        Map<String, Object> report = tracer.report();
+        assertEquals(2L, count(window(report, "5m"), "TOTAL"));
+        assertEquals(3L, count(window(report, "15m"), "TOTAL"));
+
+        tracer.rollInterval();
+        tracer.rollInterval();
+        assertEquals(2L, count(window(tracer.report(), "15m"), "TOTAL"));
+        tracer.rollInterval();
+        assertEquals(0L, count(window(tracer.report(), "15m"), "TOTAL"));
+    }
+
+    @Test
+    void slowestKeepsTheLongestTracesUpToItsCapacity() {
+        DeliveryTracer tracer = new DeliveryTracer(60_000, 2);
+        Instant now = Instant.now();
+        deliver(tracer, now.minusSeconds(1));
+        deliver(tracer, now.minusSeconds(3));
+        deliver(tracer, now.minusSeconds(2));
+        deliver(tracer, now.minusMillis(500));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> slowest =
+                (List<Map<String, Object>>) tracer.report().get("slowest");
+        assertEquals(2, slowest.size());
+        double first = (double) slowest.get(0).get("totalMs");
+        double second = (double) slowest.get(1).get("totalMs");
+        assertTrue(first >= 3000 && first < 3500, "slowest was " + first);
+        assertTrue(second >= 2000 && second < 2500, "second slowest was " + second);
+    }
+
+    private static void deliver(DeliveryTracer tracer, Instant enqueuedAt) {
+        tracer.begin("WELCOME_EMAIL", null, enqueuedAt);
+        tracer.record(DeliveryStage.DISPATCH, System.nanoTime());
+        tracer.finish();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> window(Map<String, Object> report, String name) {
+        return (Map<String, Object>) ((Map<String, Object>) report.get("windows")).get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long count(Map<String, Object> window, String stage) {
+        return (long) ((Map<String, Object>) window.get(stage)).get("count");
+    }
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
@@ -0,0 +1,111 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.EmailCampaignJob;
+import org.solace.scholar_ai.notification_service.repository.EmailCampaignJobRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class EmailCampaignServiceTest {
+
+    private static final List<EmailCampaignService.Recipient> RECIPIENTS = List.of(
+            new EmailCampaignService.Recipient("a@x.org", "A", null, null),
+            new EmailCampaignService.Recipient("b@x.org", "B", null, Map.of("userName", "Bee")));
+
+    private final Map<String, EmailCampaignJob> jobs = new ConcurrentHashMap<>();
+    private final EmailCampaignJobRepository repository = mock(EmailCampaignJobRepository.class);
+    private final EmailCampaignService service = new EmailCampaignService(
+            mock(EmailService.class),
+            mock(NotificationPersistenceService.class),
+            mock(NotificationDrainCoordinator.class),
+            new SimpleMeterRegistry(),
+            mock(PayloadStore.class),
+            repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    EmailCampaignServiceTest() {
+        when(repository.insertIfAbsent(any())).thenAnswer(call -> {
+            EmailCampaignJob job = call.getArgument(0);
+            return jobs.putIfAbsent(job.getIdempotencyKey(), job) == null ? 1 : 0;
+        });
+        when(repository.findByIdempotencyKey(anyString()))
+                .thenAnswer(call -> Optional.ofNullable(jobs.get(call.<String>getArgument(0))));
+        when(repository.findFirstByRequestHashAndCreatedAtAfterOrderByCreatedAtDesc(anyString(), any()))
+                .thenAnswer(call -> jobs.values().stream()
+                        .filter(j -> j.getRequestHash().equals(call.getArgument(0)))
+                        .filter(j -> j.getCreatedAt().isAfter(call.getArgument(1)))
+                        .max(Comparator.comparing(EmailCampaignJob::getCreatedAt)));
+        ReflectionTestUtils.setField(service, "dedupWindowMs", 600_000L);
+    }
+
+    @Test
+    void retriedRequestWithoutKeyFindsTheQueuedJob() {
+        Map<String, Object> shared = new LinkedHashMap<>();
+        shared.put("projectName", "Thesis");
+        shared.put("link", "https://example.org");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("link", "https://example.org");
+        reordered.put("projectName", "Thesis");
+
+        EmailCampaignService.Submission first = service.submit(null, "welcome-email", "Hi", shared, RECIPIENTS);
+        EmailCampaignService.Submission retry = service.submit(" ", "welcome-email", "Hi", reordered, RECIPIENTS);
+
+        assertTrue(retry.sameRequest());
+        assertSame(first.job(), retry.job());
+        assertEquals(1, jobs.size());
+        assertEquals(2, first.job().getTotal());
+    }
+
+    @Test
+    void identicalCampaignAfterTheDedupWindowIsQueuedAgain() {
+        EmailCampaignService.Submission lastWeek = service.submit(null, "welcome-email", "Digest", null, RECIPIENTS);
+        lastWeek.job().setCreatedAt(Instant.now().minus(7, ChronoUnit.DAYS));
+
+        EmailCampaignService.Submission thisWeek = service.submit(null, "welcome-email", "Digest", null, RECIPIENTS);
+
+        assertTrue(thisWeek.sameRequest());
+        assertNotSame(lastWeek.job(), thisWeek.job());
+        assertEquals(2, jobs.size());
+    }
+
+    @Test
+    void keyReusedForADifferentCampaignIsReported() {
+        EmailCampaignService.Submission first = service.submit("k-1", "welcome-email", "Hi", null, RECIPIENTS);
+        EmailCampaignService.Submission other =
+                service.submit("k-1", "welcome-email", "Hello", null, RECIPIENTS.subList(0, 1));
+        EmailCampaignService.Submission fresh =
+                service.submit("k-2", "welcome-email", "Hello", null, RECIPIENTS.subList(0, 1));
+
+        assertFalse(other.sameRequest());
+        assertSame(first.job(), other.job());
+        assertTrue(fresh.sameRequest());
+        assertEquals(2, jobs.size());
+    }
+
+    @Test
+    void invalidTemplateIsRejectedBeforeQueueing() {
+        assertThrows(IllegalArgumentException.class, () -> service.submit(null, "../secrets", "Hi", null, RECIPIENTS));
+        assertTrue(jobs.isEmpty());
+    }
+}
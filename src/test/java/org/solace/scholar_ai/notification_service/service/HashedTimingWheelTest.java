@@ -0,0 +1,63 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void firesItemsNoEarlierThanTheirDeadline() throws InterruptedException {
+        Map<Integer, Long> firedAt = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(3);
+        // Four buckets of 10 ms, so the 120 ms item needs several rotations.
+        HashedTimingWheel<Integer> wheel =
+                new HashedTimingWheel<>("test-wheel", 10, TimeUnit.MILLISECONDS, 4, items -> {
+                    long now = System.currentTimeMillis();
+                    for (Integer item : items) {
+                        firedAt.put(item, now);
+                        done.countDown();
+                    }
+                });
+        wheel.start();
+        try {
+            long base = System.currentTimeMillis();
+            Map<Integer, Long> due = Map.of(1, base - 50, 2, base + 30, 3, base + 120);
+            due.forEach((item, at) -> wheel.schedule(item, at));
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            due.forEach((item, at) -> assertTrue(firedAt.get(item) >= at - 1, "item " + item + " fired early"));
+            assertEquals(0, wheel.size());
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void deliversItemsDueOnTheSameTickAsOneBatch() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        List<List<Integer>> batches = new java.util.concurrent.CopyOnWriteArrayList<>();
+        HashedTimingWheel<Integer> wheel =
+                new HashedTimingWheel<>("test-wheel", 50, TimeUnit.MILLISECONDS, 8, items -> {
+                    batches.add(items);
+                    done.countDown();
+                });
+        long at = System.currentTimeMillis() + 20;
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(i, at);
+        }
+        wheel.start();
+        try {
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            assertEquals(100, batches.get(0).size());
+        } finally {
+            wheel.stop();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ListenerAutoscalerTest {
+
+    private final ListenerAutoscaler.Policy policy = new ListenerAutoscaler.Policy(1, 8, 20, 2000, 0.8, 3);
+
+    @Test
+    void backlogAddsOneConsumerPerTickUpToTheMax() {
+        assertEquals(new ListenerAutoscaler.Decision(3, "backlog", 0), policy.decide(2, 100, 500, 0.2, 0));
+        assertEquals(new ListenerAutoscaler.Decision(8, "backlog", 0), policy.decide(8, 10_000, 500, 0.2, 0));
+        assertEquals(new ListenerAutoscaler.Decision(3, "backlog", 0), policy.decide(3, 60, 500, 0.2, 2));
+    }
+
+    @Test
+    void slowSmtpHoldsTheConsumerCount() {
+        assertEquals(new ListenerAutoscaler.Decision(2, "smtp-latency", 0), policy.decide(2, 100, 2500, 0.2, 0));
+        // Latency only blocks growth; an idle queue still shrinks after the quiet ticks
+        assertEquals(new ListenerAutoscaler.Decision(3, "backlog", 1), policy.decide(3, 0, 2500, 0.2, 0));
+    }
+
+    @Test
+    void saturatedPoolShedsAConsumerAtOnce() {
+        assertEquals(new ListenerAutoscaler.Decision(3, "pool-saturation", 0), policy.decide(4, 1000, 500, 0.8, 0));
+        assertEquals(new ListenerAutoscaler.Decision(1, "pool-saturation", 0), policy.decide(1, 1000, 500, 0.95, 0));
+    }
+
+    @Test
+    void backlogScaleDownWaitsForQuietTicks() {
+        int quiet = 0;
+        ListenerAutoscaler.Decision decision = null;
+        for (int tick = 1; tick < 3; tick++) {
+            decision = policy.decide(4, 0, 500, 0.2, quiet);
+            assertEquals(4, decision.target());
+            assertEquals(tick, decision.quietTicks());
+            quiet = decision.quietTicks();
+        }
+        decision = policy.decide(4, 0, 500, 0.2, quiet);
+        assertEquals(new ListenerAutoscaler.Decision(3, "backlog", 0), decision);
+    }
+
+    @Test
+    void renewedBacklogResetsTheQuietTicks() {
+        assertEquals(new ListenerAutoscaler.Decision(4, "backlog", 0), policy.decide(4, 80, 500, 0.2, 2));
+    }
+}
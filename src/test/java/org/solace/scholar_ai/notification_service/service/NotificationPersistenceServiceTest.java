@@ -0,0 +1,73 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class NotificationPersistenceServiceTest {
+
+    private static final NotificationRequest REQUEST = NotificationRequest.builder()
+            .notificationType("WELCOME_EMAIL")
+            .recipientEmail("a@x.org")
+            .recipientName("A")
+            .templateData(Map.of("userName", "A"))
+            .build();
+
+    private final NotificationRecordRepository repository = mock(NotificationRecordRepository.class);
+    private final PayloadStore payloadStore = mock(PayloadStore.class);
+    private final NotificationStatsService stats = mock(NotificationStatsService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus transaction = mock(TransactionStatus.class);
+
+    @SuppressWarnings("unchecked")
+    private final NotificationPersistenceService service = new NotificationPersistenceService(
+            repository,
+            payloadStore,
+            mock(ObjectProvider.class),
+            mock(DeliveryTracer.class),
+            stats,
+            new TransactionTemplate(transactionManager));
+
+    NotificationPersistenceServiceTest() {
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+    }
+
+    @Test
+    void recordAndStatsCommitInOneTransaction() {
+        service.saveSuccess(REQUEST, "Welcome", "welcome-email");
+
+        InOrder order = inOrder(transactionManager, repository, stats);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).save(any());
+        order.verify(stats).deliveriesRecorded(anyList());
+        order.verify(transactionManager).commit(transaction);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void failedStatsWriteRollsTheRecordBack() {
+        doThrow(new DataAccessResourceFailureException("down")).when(stats).deliveriesRecorded(anyList());
+
+        service.saveSuccess(REQUEST, "Welcome", "welcome-email");
+
+        verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+}
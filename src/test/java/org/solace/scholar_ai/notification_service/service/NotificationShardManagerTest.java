@@ -0,0 +1,174 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NotificationShardManagerTest {
+
+    private static final int SHARDS = 16;
+    private static final NotificationRequest REQUEST = NotificationRequest.builder()
+            .notificationType("WELCOME_EMAIL")
+            .recipientEmail("a@x.org")
+            .userId(UUID.fromString("3f1c8a5e-0000-0000-0000-000000000001"))
+            .build();
+
+    private final NotificationDrainCoordinator drainCoordinator = mock(NotificationDrainCoordinator.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final RabbitListenerEndpointRegistry listenerRegistry = mock(RabbitListenerEndpointRegistry.class);
+
+    NotificationShardManagerTest() {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+    }
+
+    @Test
+    void usersSpreadEvenlyOverShards() {
+        Random random = new Random(7);
+        int[] counts = new int[SHARDS];
+        int users = 160_000;
+        for (int i = 0; i < users; i++) {
+            UUID user = new UUID(random.nextLong(), random.nextLong());
+            int shard = NotificationShardManager.shardFor(user, SHARDS);
+            assertEquals(shard, NotificationShardManager.shardFor(user, SHARDS));
+            counts[shard]++;
+        }
+        for (int count : counts) {
+            assertTrue(Math.abs(count - users / SHARDS) < users / SHARDS / 10, "uneven shard: " + count);
+        }
+    }
+
+    @Test
+    void requestsWithoutUserStillGetAShard() {
+        assertEquals(0, NotificationShardManager.shardFor((String) null, SHARDS));
+        int shard = NotificationShardManager.shardFor("someone@example.com", SHARDS);
+        assertTrue(shard >= 0 && shard < SHARDS);
+    }
+
+    @Test
+    void joiningInstanceOnlyTakesShards() {
+        List<String> members = new ArrayList<>(List.of("10.0.0.1:8082", "10.0.0.2:8082", "10.0.0.3:8082"));
+        String[] before = owners(members);
+        members.add("10.0.0.4:8082");
+        String[] after = owners(members);
+        int moved = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (!before[shard].equals(after[shard])) {
+                assertEquals("10.0.0.4:8082", after[shard]);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < SHARDS / 2, "moved " + moved);
+    }
+
+    @Test
+    void leavingInstanceOnlyGivesUpItsShards() {
+        List<String> members = new ArrayList<>(List.of("10.0.0.1:8082", "10.0.0.2:8082", "10.0.0.3:8082"));
+        String[] before = owners(members);
+        members.remove("10.0.0.2:8082");
+        String[] after = owners(members);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (!before[shard].equals("10.0.0.2:8082")) {
+                assertEquals(before[shard], after[shard]);
+            }
+        }
+    }
+
+    @Test
+    void ownershipDoesNotDependOnListOrder() {
+        String[] forward = owners(List.of("a:1", "b:1", "c:1"));
+        String[] reverse = owners(List.of("c:1", "b:1", "a:1"));
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertEquals(forward[shard], reverse[shard]);
+        }
+    }
+
+    @Test
+    void drainingInstanceDoesNotRestartShards() {
+        when(drainCoordinator.isDraining()).thenReturn(true);
+
+        manager().rebalance();
+
+        verifyNoInteractions(listenerRegistry);
+    }
+
+    @Test
+    void forwardReturnsOnceTheBrokerConfirms() {
+        confirmForwards(new CorrelationData.Confirm(true, null));
+
+        manager().forward(REQUEST);
+
+        verify(rabbitTemplate).convertAndSend(eq("shards"), anyString(), eq(REQUEST), any(CorrelationData.class));
+    }
+
+    @Test
+    void nackedOrUnconfirmedForwardFailsSoTheIngressMessageIsRequeued() {
+        confirmForwards(new CorrelationData.Confirm(false, "queue full"));
+        assertThrows(AmqpException.class, () -> manager().forward(REQUEST));
+
+        // No confirm at all: gives up after the timeout
+        reset(rabbitTemplate);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        assertThrows(AmqpException.class, () -> manager().forward(REQUEST));
+    }
+
+    private void confirmForwards(CorrelationData.Confirm confirm) {
+        doAnswer(call -> {
+                    call.<CorrelationData>getArgument(3).getFuture().complete(confirm);
+                    return null;
+                })
+                .when(rabbitTemplate)
+                .convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationShardManager manager() {
+        NotificationShardManager manager = new NotificationShardManager(
+                mock(NotificationConsumerService.class),
+                drainCoordinator,
+                rabbitTemplate,
+                listenerRegistry,
+                mock(SimpleRabbitListenerContainerFactory.class),
+                mock(ObjectProvider.class),
+                mock(ObjectProvider.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(manager, "shards", SHARDS);
+        ReflectionTestUtils.setField(manager, "shardExchangeName", "shards");
+        ReflectionTestUtils.setField(manager, "forwardConfirmTimeoutMs", 50L);
+        return manager;
+    }
+
+    private static String[] owners(List<String> members) {
+        String[] owners = new String[SHARDS];
+        for (int shard = 0; shard < SHARDS; shard++) {
+            owners[shard] = NotificationShardManager.owner(shard, members);
+        }
+        return owners;
+    }
+}
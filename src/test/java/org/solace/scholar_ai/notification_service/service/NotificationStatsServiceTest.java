@@ -0,0 +1,126 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.NotificationStat;
+import org.solace.scholar_ai.notification_service.repository.NotificationStatRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class NotificationStatsServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final Instant CREATED = Instant.parse("2025-03-01T10:00:00Z");
+
+    private final NotificationStatRepository repository = mock(NotificationStatRepository.class);
+    private final NotificationStatsService service = new NotificationStatsService(repository, null);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void mergesATransactionsDeltasIntoOneUpsertPerCounter() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 3; i++) {
+            service.appCreated(notification(AppNotification.NotificationStatus.UNREAD));
+        }
+        service.appRead(notification(AppNotification.NotificationStatus.UNREAD));
+        service.appRead(notification(AppNotification.NotificationStatus.READ));
+
+        verify(repository, never()).add(any(), anyString(), anyString(), anyString(), anyString(), anyLong());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(repository, times(1)).lockShared(USER);
+        verify(repository).add(USER, "APP", "web_search_completed", "MEDIUM", "UNREAD", 2);
+        verify(repository).add(USER, "APP", "web_search_completed", "MEDIUM", "READ", 1);
+        verify(repository).addDaily(USER, "APP", LocalDate.parse("2025-03-01"), 3);
+    }
+
+    @Test
+    void collapsingMovesTheRowToTheRepeatsPriorityAndDay() {
+        TransactionSynchronizationManager.initSynchronization();
+        AppNotification previous = notification(AppNotification.NotificationStatus.UNREAD);
+        AppNotification current = notification(AppNotification.NotificationStatus.UNREAD);
+        current.setPriority(AppNotification.NotificationPriority.HIGH);
+        current.setCreatedAt(CREATED.plusSeconds(86_400));
+
+        service.appCollapsed(previous, current);
+        service.appCollapsed(current, current);
+        TransactionSynchronizationManager.getSynchronizations().get(0).beforeCommit(false);
+
+        verify(repository).add(USER, "APP", "web_search_completed", "MEDIUM", "UNREAD", -1);
+        verify(repository).add(USER, "APP", "web_search_completed", "HIGH", "UNREAD", 1);
+        verify(repository).addDaily(USER, "APP", LocalDate.parse("2025-03-01"), -1);
+        verify(repository).addDaily(USER, "APP", LocalDate.parse("2025-03-02"), 1);
+    }
+
+    @Test
+    void summarizesPositiveCountersAndFillsEveryDayOfTheWindow() {
+        List<NotificationStat> counters = List.of(
+                stat(NotificationStat.Source.APP, "project_deleted", "HIGH", "READ", 4),
+                stat(NotificationStat.Source.APP, "project_deleted", "HIGH", "UNREAD", 1),
+                stat(NotificationStat.Source.APP, "", "", "UNREAD", 0),
+                stat(NotificationStat.Source.EMAIL, "WELCOME_EMAIL", "", "SENT", 7));
+        LocalDate since = LocalDate.parse("2025-03-01");
+        NotificationStatRepository.DailyCount day = new NotificationStatRepository.DailyCount() {
+            public String getSource() {
+                return "APP";
+            }
+
+            public LocalDate getDay() {
+                return since.plusDays(1);
+            }
+
+            public long getTotal() {
+                return 5;
+            }
+        };
+
+        NotificationStatsService.SourceStats app =
+                NotificationStatsService.summarize(NotificationStat.Source.APP, counters, List.of(day), since, 3);
+
+        assertEquals(5, app.total());
+        assertEquals(Map.of("project_deleted", 5L), app.byCategory());
+        assertEquals(Map.of("HIGH", 5L), app.byPriority());
+        assertEquals(Map.of("READ", 4L, "UNREAD", 1L), app.byStatus());
+        assertEquals(List.of(0L, 5L, 0L), List.copyOf(app.daily().values()));
+    }
+
+    private static AppNotification notification(AppNotification.NotificationStatus status) {
+        return AppNotification.builder()
+                .id(UUID.randomUUID())
+                .userId(USER)
+                .category("web_search_completed")
+                .priority(AppNotification.NotificationPriority.MEDIUM)
+                .status(status)
+                .createdAt(CREATED)
+                .build();
+    }
+
+    private static NotificationStat stat(
+            NotificationStat.Source source, String category, String priority, String status, long total) {
+        return new NotificationStat(new NotificationStat.Key(USER, source, category, priority, status), total);
+    }
+}
@@ -0,0 +1,115 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest.NotificationType;
+
+class NotificationTypeRegistryTest {
+
+    private final NotificationTypeRegistry registry = new NotificationTypeRegistry("ScholarAI");
+
+    @Test
+    void definesEveryTypeAndReturnsNullForUnknownNames() {
+        for (NotificationType type : NotificationType.values()) {
+            NotificationTypeRegistry.Definition definition = registry.find(type.name());
+            assertNotNull(definition, type.name());
+            assertEquals(type, definition.type());
+        }
+        assertNull(registry.find("NEWSLETTER"));
+        assertNull(registry.find(null));
+        assertEquals(
+                "Password Reset - ScholarAI",
+                registry.get(NotificationType.PASSWORD_RESET).subject());
+    }
+
+    @Test
+    void formatsInAppTitlesAndMessages() {
+        Map<String, Object> data = Map.of(
+                "projectName", "Engine",
+                "searchParams", "retrieval",
+                "papersCount", "12",
+                "notesCount", 3,
+                "paperTitle", "A very long paper title that needs to be truncated",
+                "gapsCount", 6L);
+
+        assertEquals("🔍 Research Search Complete • Engine (12 papers)", NotificationTypeRegistry.webSearchTitle(data));
+        assertEquals(
+                "Web search completed for \"Engine\". Found 12 papers matching \"retrieval\".",
+                NotificationTypeRegistry.webSearchMessage(data));
+        assertEquals(
+                "Academic paper search completed. Found 0 papers.",
+                NotificationTypeRegistry.webSearchMessage(Map.of()));
+        assertEquals(
+                "📄 AI Summary Ready • A very long paper title that needs to be...",
+                NotificationTypeRegistry.summaryTitle(data));
+        assertEquals(
+                "Project \"Engine\" deleted. Removed 12 papers, 3 notes.",
+                NotificationTypeRegistry.projectDeletedMessage(data));
+        assertEquals(
+                "Project \"Unnamed Project\" deleted. Removed 0 papers.",
+                NotificationTypeRegistry.projectDeletedMessage(Map.of()));
+        assertEquals(
+                "🎯 Gap Analysis Complete • A very long paper title that n... (6 gaps)",
+                NotificationTypeRegistry.gapAnalysisTitle(data));
+    }
+
+    @Test
+    void parsesNumericStringsWithoutThrowing() {
+        assertEquals(-42, NotificationTypeRegistry.extractInt(Map.of("n", "-42"), "n"));
+        assertEquals(Integer.MIN_VALUE, NotificationTypeRegistry.extractInt(Map.of("n", "-2147483648"), "n"));
+        assertNull(NotificationTypeRegistry.extractInt(Map.of("n", "2147483648"), "n"));
+        assertNull(NotificationTypeRegistry.extractInt(Map.of("n", "twelve"), "n"));
+        assertEquals(7, NotificationTypeRegistry.extractInt(Map.of("a", "x", "b", 7), "a", "b"));
+    }
+
+    /** Compares the old valueOf + String.format dispatch against registry lookup + formatters. */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmark() {
+        Map<String, Object> data = Map.of("projectName", "Engine", "searchParams", "retrieval", "papersCount", 12);
+        List<String> names = List.of("WEB_SEARCH_COMPLETED", "PROJECT_DELETED", "GAP_ANALYSIS_COMPLETED", "BOGUS");
+        String[] sink = new String[1];
+
+        Consumer<String> before = name -> {
+            try {
+                NotificationType type = NotificationType.valueOf(name);
+                sink[0] = switch (type) {
+                    case WEB_SEARCH_COMPLETED -> String.format(
+                            "Web search completed for \"%s\". Found %d papers matching \"%s\".",
+                            data.get("projectName"), 12, data.get("searchParams"));
+                    case PROJECT_DELETED -> String.format(
+                            "Project \"%s\" deleted. Removed %d papers%s.", data.get("projectName"), 12, "");
+                    default -> String.format("Gap analysis completed. Identified %d research opportunities.", 0);};
+            } catch (IllegalArgumentException e) {
+                sink[0] = null;
+            }
+        };
+        Consumer<String> after = name -> {
+            NotificationTypeRegistry.Definition definition = registry.find(name);
+            sink[0] = definition == null ? null : definition.message().apply(data);
+        };
+
+        for (String label : List.of("before", "after", "before", "after")) {
+            Consumer<String> dispatch = label.equals("before") ? before : after;
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            int rounds = 500_000;
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                dispatch.accept(names.get(i & 3));
+            }
+            long nanos = System.nanoTime() - start;
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+            System.out.printf("%-6s %7.1f ns/msg %7d B/msg%n", label, (double) nanos / rounds, allocated / rounds);
+        }
+    }
+}
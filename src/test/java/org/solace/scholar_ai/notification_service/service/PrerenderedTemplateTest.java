@@ -0,0 +1,25 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PrerenderedTemplateTest {
+
+    @Test
+    void patchesEscapedValuesIntoEverySlot() {
+        List<String> keys = List.of("userEmail", "userName");
+        Map<String, Object> placeholders = PrerenderedTemplate.placeholders(keys);
+        String rendered = "<p>Hello " + placeholders.get("userName") + "!</p><a href=\"mailto:"
+                + placeholders.get("userEmail") + "\">" + placeholders.get("userName") + "</a>";
+
+        PrerenderedTemplate template = PrerenderedTemplate.compile(rendered, keys);
+
+        assertEquals(
+                "<p>Hello Ada &amp; Bob!</p><a href=\"mailto:a@b.c\">Ada &amp; Bob</a>",
+                template.render(Map.of("userName", "Ada & Bob", "userEmail", "a@b.c")));
+        assertEquals("<p>Hello !</p><a href=\"mailto:\"></a>", template.render(Map.of()));
+    }
+}
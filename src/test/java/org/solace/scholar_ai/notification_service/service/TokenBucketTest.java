@@ -0,0 +1,34 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstUpToCapacityThenRefusesUntilRefilled() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(20, 3);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertTrue(bucket.nanosToNextToken() > 0);
+
+        Thread.sleep(60);
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    void acquireHoldsTheConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            bucket.acquire();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        // First token is immediate, the other ten arrive 20 ms apart
+        assertTrue(elapsedMs >= 190, "took " + elapsedMs + " ms");
+    }
+}
@@ -0,0 +1,376 @@
+package org.solace.scholar_ai.notification_service.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
+
+/**
+ * Build-time optimizer for the email templates, run by Maven in {@code process-test-classes}. It
+ * lives in the test sources so that neither it nor jsoup is packaged with the service.
+ *
+ * <p>Reads {@code templates/*.html} and writes a smaller equivalent of each to {@code
+ * templates-optimized/}, which the runtime resolves first (see {@code TemplateConfig}). For each
+ * template it:
+ *
+ * <ul>
+ *   <li>inlines {@code <style>} rules whose selectors match elements in the template, in specificity
+ *       order and below existing inline styles. Rules with pseudo-classes or {@code !important},
+ *       at-rules such as {@code @media}, and selectors aimed at markup the mail client adds (nothing
+ *       in the template matches them) are kept in the style block;
+ *   <li>drops declarations overridden later in the same style attribute and collapses their
+ *       whitespace;
+ *   <li>strips comments, except Outlook conditional comments;
+ *   <li>collapses whitespace, and drops whitespace-only text where it cannot render.
+ * </ul>
+ *
+ * <p>Thymeleaf attributes pass through untouched. A per-template size report is written next to the
+ * build output.
+ *
+ * <p>Usage: {@code EmailTemplateOptimizer <source dir> <target dir> <report file>}
+ */
+public final class EmailTemplateOptimizer {
+
+    private static final Set<String> PRESERVE_WHITESPACE = Set.of("pre", "textarea", "script", "style");
+    private static final Set<String> STRUCTURAL =
+            Set.of("html", "head", "body", "table", "thead", "tbody", "tfoot", "tr", "ul", "ol");
+
+    private EmailTemplateOptimizer() {}
+
+    /** Sizes of one template before and after, raw and gzipped. */
+    record Result(String name, int originalBytes, int optimizedBytes, int originalGzip, int optimizedGzip) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: EmailTemplateOptimizer <source dir> <target dir> <report file>");
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]);
+        Path report = Path.of(args[2]);
+        Files.createDirectories(target);
+
+        List<Result> results = new ArrayList<>();
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file :
+                    files.filter(f -> f.toString().endsWith(".html")).sorted().toList()) {
+                String original = Files.readString(file, StandardCharsets.UTF_8);
+                String optimized = optimize(original);
+                Files.writeString(target.resolve(file.getFileName()), optimized, StandardCharsets.UTF_8);
+                results.add(new Result(
+                        file.getFileName().toString(),
+                        utf8Length(original),
+                        utf8Length(optimized),
+                        gzipLength(original),
+                        gzipLength(optimized)));
+            }
+        }
+        String table = report(results);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, table, StandardCharsets.UTF_8);
+        System.out.print(table);
+    }
+
+    /** Returns the optimized form of one template. */
+    public static String optimize(String html) {
+        Document document = Jsoup.parse(html);
+        document.outputSettings().prettyPrint(false).charset(StandardCharsets.UTF_8);
+
+        inlineStyles(document);
+        for (Element element : document.select("[style]")) {
+            String style = compactDeclarations(element.attr("style"));
+            if (style.isEmpty()) {
+                element.removeAttr("style");
+            } else {
+                element.attr("style", style);
+            }
+        }
+        stripComments(document);
+        collapseWhitespace(document);
+        return document.outerHtml();
+    }
+
+    private record Rule(String selector, String declarations, int specificity, int order) {}
+
+    private static void inlineStyles(Document document) {
+        List<Rule> inlined = new ArrayList<>();
+        int order = 0;
+        for (Element style : document.select("style")) {
+            StringBuilder kept = new StringBuilder();
+            for (String[] block : parseBlocks(style.data())) {
+                String prelude = block[0];
+                String body = block[1];
+                if (prelude.startsWith("@") || body.contains("!important")) {
+                    kept.append(prelude).append('{').append(minify(body)).append('}');
+                    continue;
+                }
+                List<String> remaining = new ArrayList<>();
+                for (String selector : prelude.split(",")) {
+                    selector = selector.trim();
+                    if (isInlinable(document, selector)) {
+                        inlined.add(new Rule(selector, body, specificity(selector), order++));
+                    } else if (!selector.isEmpty()) {
+                        remaining.add(selector);
+                    }
+                }
+                if (!remaining.isEmpty()) {
+                    kept.append(String.join(",", remaining))
+                            .append('{')
+                            .append(minify(body))
+                            .append('}');
+                }
+            }
+            if (kept.isEmpty()) {
+                style.remove();
+            } else {
+                style.empty().appendChild(new DataNode(kept.toString()));
+            }
+        }
+
+        inlined.sort(Comparator.comparingInt(Rule::specificity).thenComparingInt(Rule::order));
+        Map<Element, StringBuilder> fromRules = new IdentityHashMap<>();
+        for (Rule rule : inlined) {
+            for (Element element : document.select(rule.selector())) {
+                fromRules
+                        .computeIfAbsent(element, e -> new StringBuilder())
+                        .append(rule.declarations())
+                        .append(';');
+            }
+        }
+        // Existing inline styles come last so they keep winning over stylesheet rules
+        fromRules.forEach((element, declarations) -> element.attr("style", declarations + element.attr("style")));
+    }
+
+    private static boolean isInlinable(Document document, String selector) {
+        if (selector.isEmpty() || selector.contains(":") || selector.contains("[")) {
+            return false;
+        }
+        try {
+            Elements matches = document.select(selector);
+            return !matches.isEmpty();
+        } catch (Selector.SelectorParseException e) {
+            return false;
+        }
+    }
+
+    /** Splits a stylesheet into {prelude, body} pairs; at-rule bodies keep their nested blocks. */
+    static List<String[]> parseBlocks(String css) {
+        String text = css.replaceAll("(?s)/\\*.*?\\*/", "");
+        List<String[]> blocks = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            int open = text.indexOf('{', i);
+            if (open < 0) {
+                break;
+            }
+            int depth = 1;
+            int close = open + 1;
+            while (close < text.length() && depth > 0) {
+                char c = text.charAt(close);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+                close++;
+            }
+            String prelude = text.substring(i, open).trim().replaceAll("\\s+", " ");
+            blocks.add(
+                    new String[] {prelude, text.substring(open + 1, close - 1).trim()});
+            i = close;
+        }
+        return blocks;
+    }
+
+    /** Simplified (ids, classes, tags) specificity, packed into one comparable int. */
+    static int specificity(String selector) {
+        int ids = 0;
+        int classes = 0;
+        int tags = 0;
+        for (String compound : selector.split("[\\s>+~]+")) {
+            if (compound.isEmpty()) {
+                continue;
+            }
+            if (Character.isLetter(compound.charAt(0))) {
+                tags++;
+            }
+            for (char c : compound.toCharArray()) {
+                if (c == '#') {
+                    ids++;
+                } else if (c == '.') {
+                    classes++;
+                }
+            }
+        }
+        return ids * 10_000 + classes * 100 + tags;
+    }
+
+    /**
+     * Keeps only the last declaration of each property, in its original position, so shorthand and
+     * longhand properties still apply in the same order.
+     */
+    static String compactDeclarations(String style) {
+        List<String> declarations = splitDeclarations(style);
+        Set<String> seen = new HashSet<>();
+        List<String> kept = new ArrayList<>();
+        for (int i = declarations.size() - 1; i >= 0; i--) {
+            String declaration = declarations.get(i);
+            int colon = declaration.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String property = declaration.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = declaration.substring(colon + 1).trim().replaceAll("\\s+", " ");
+            if (seen.add(property)) {
+                kept.add(property + ":" + value);
+            }
+        }
+        Collections.reverse(kept);
+        return String.join(";", kept);
+    }
+
+    /** Splits on semicolons outside parentheses, so data URIs survive. */
+    private static List<String> splitDeclarations(String style) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < style.length(); i++) {
+            char c = style.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+            } else if (c == ';' && depth == 0) {
+                parts.add(style.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(style.substring(start));
+        return parts.stream().map(String::trim).filter(p -> !p.isEmpty()).toList();
+    }
+
+    private static String minify(String css) {
+        return css.replaceAll("\\s+", " ").replaceAll("\\s*([{};])\\s*", "$1").trim();
+    }
+
+    private static void stripComments(Document document) {
+        List<Comment> comments = new ArrayList<>();
+        document.traverse((node, depth) -> {
+            if (node instanceof Comment comment) {
+                comments.add(comment);
+            }
+        });
+        for (Comment comment : comments) {
+            String data = comment.getData().trim();
+            // Outlook conditional comments carry markup and must survive
+            if (!data.startsWith("[if") && !data.contains("<![endif]")) {
+                comment.remove();
+            }
+        }
+    }
+
+    private static void collapseWhitespace(Document document) {
+        List<TextNode> textNodes = new ArrayList<>();
+        document.traverse((node, depth) -> {
+            if (node instanceof TextNode text) {
+                textNodes.add(text);
+            }
+        });
+        for (TextNode text : textNodes) {
+            Element parent = (Element) text.parent();
+            if (parent == null || preservesWhitespace(parent)) {
+                continue;
+            }
+            String collapsed = text.getWholeText().replaceAll("\\s+", " ");
+            if (collapsed.equals(" ") && isInsignificant(text, parent)) {
+                text.remove();
+            } else {
+                text.text(collapsed);
+            }
+        }
+    }
+
+    private static boolean preservesWhitespace(Element element) {
+        for (Element e = element; e != null; e = e.parent()) {
+            if (PRESERVE_WHITESPACE.contains(e.normalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whitespace that a browser would drop: in table structure, or next to a block boundary. */
+    private static boolean isInsignificant(TextNode text, Element parent) {
+        if (STRUCTURAL.contains(parent.normalName())) {
+            return true;
+        }
+        if (!parent.isBlock()) {
+            return false;
+        }
+        Node previous = text.previousSibling();
+        Node next = text.nextSibling();
+        return previous == null
+                || next == null
+                || (previous instanceof Element p && p.isBlock())
+                || (next instanceof Element n && n.isBlock());
+    }
+
+    private static String report(List<Result> results) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(
+                "%-32s %10s %10s %7s %10s %10s%n", "template", "bytes", "optimized", "saved", "gzip", "opt gzip"));
+        int before = 0;
+        int after = 0;
+        for (Result r : results) {
+            out.append(String.format(
+                    "%-32s %10d %10d %6.1f%% %10d %10d%n",
+                    r.name(),
+                    r.originalBytes(),
+                    r.optimizedBytes(),
+                    100.0 * (r.originalBytes() - r.optimizedBytes()) / r.originalBytes(),
+                    r.originalGzip(),
+                    r.optimizedGzip()));
+            before += r.originalBytes();
+            after += r.optimizedBytes();
+        }
+        out.append(String.format(
+                "%-32s %10d %10d %6.1f%%%n",
+                "total", before, after, before == 0 ? 0.0 : 100.0 * (before - after) / before));
+        return out.toString();
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static int gzipLength(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,133 @@
+package org.solace.scholar_ai.notification_service.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+class EmailTemplateOptimizerTest {
+
+    private static final Path TEMPLATES = Path.of("src/main/resources/templates");
+
+    private static final Map<String, Object> DATA = Map.ofEntries(
+            Map.entry("userName", "Ada Lovelace"),
+            Map.entry("userEmail", "ada@example.com"),
+            Map.entry("appUrl", "https://example.com"),
+            Map.entry("supportEmail", "support@example.com"),
+            Map.entry("projectName", "Analytical Engine"),
+            Map.entry("paperTitle", "Notes on the Engine"),
+            Map.entry("summaryConfidence", "high"),
+            Map.entry("papersCount", 12),
+            Map.entry("notesCount", 3),
+            Map.entry("summariesCount", 4),
+            Map.entry("readingListItemsCount", 5),
+            Map.entry("gapAnalysesCount", 2),
+            Map.entry("gapsCount", 6),
+            Map.entry("totalGaps", 6),
+            Map.entry("validGaps", 4),
+            Map.entry("gapNames", List.of("Evaluation", "Datasets")),
+            Map.entry("searchTerms", List.of("retrieval", "summarization")),
+            Map.entry("domain", "Computer Science"),
+            Map.entry("batchSize", 20),
+            Map.entry("verificationCode", "123456"),
+            Map.entry("resetCode", "654321"));
+
+    private final TemplateEngine engine = engine();
+
+    private static TemplateEngine engine() {
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.HTML);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    @Test
+    void inlinesPlainRulesAndKeepsClientSpecificCss() {
+        String html = "<html><head><style>"
+                + ".btn { color: red; padding: 4px }"
+                + " a:hover { color: blue }"
+                + " @media (max-width: 600px) { .btn { padding: 0 } }"
+                + "</style></head><body>"
+                + "<!-- layout note --><!--[if mso]><table><![endif]-->"
+                + "<a class=\"btn\" style=\"color: green; color: black\" th:text=\"${userName}\">  x  </a>"
+                + "</body></html>";
+
+        String optimized = EmailTemplateOptimizer.optimize(html);
+
+        assertTrue(optimized.contains("style=\"padding:4px;color:black\""), optimized);
+        assertTrue(optimized.contains("a:hover"), optimized);
+        assertTrue(optimized.contains("@media"), optimized);
+        assertTrue(optimized.contains("[if mso]"), optimized);
+        assertFalse(optimized.contains("layout note"), optimized);
+        assertTrue(optimized.contains("th:text=\"${userName}\""), optimized);
+    }
+
+    @Test
+    void optimizedTemplatesRenderTheSameTextAndAreSmaller() throws IOException {
+        for (Path template : templates()) {
+            String original = Files.readString(template, StandardCharsets.UTF_8);
+            String optimized = EmailTemplateOptimizer.optimize(original);
+
+            assertTrue(optimized.length() < original.length(), template.toString());
+            assertEquals(text(original), text(optimized), template.toString());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmark() throws IOException {
+        for (Path template : templates()) {
+            String original = Files.readString(template, StandardCharsets.UTF_8);
+            String optimized = EmailTemplateOptimizer.optimize(original);
+            System.out.printf(
+                    "%-40s %7d -> %7d bytes, render %6.1f -> %6.1f us%n",
+                    template.getFileName(),
+                    original.getBytes(StandardCharsets.UTF_8).length,
+                    optimized.getBytes(StandardCharsets.UTF_8).length,
+                    renderMicros(original),
+                    renderMicros(optimized));
+        }
+    }
+
+    private double renderMicros(String template) {
+        for (int i = 0; i < 2_000; i++) {
+            render(template);
+        }
+        int rounds = 5_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            render(template);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / rounds;
+    }
+
+    private String text(String template) {
+        return Jsoup.parse(render(template)).text();
+    }
+
+    private String render(String template) {
+        return engine.process(template, new Context(null, DATA));
+    }
+
+    private static List<Path> templates() throws IOException {
+        try (Stream<Path> files = Files.list(TEMPLATES)) {
+            return files.filter(p -> p.toString().endsWith(".html")).sorted().toList();
+        }
+    }
+}